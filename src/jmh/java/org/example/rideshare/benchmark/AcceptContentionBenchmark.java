@@ -0,0 +1,121 @@
+package org.example.rideshare.benchmark;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.repository.RideRepositoryCustomImpl;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Many drivers racing to accept the same ride, against a real MongoDB.
+ *
+ * For each driver count every round inserts one REQUESTED ride, releases all drivers at once
+ * and counts how many of them were told they won. Exactly one winner per round is correct.
+ * The conditional find-and-modify path is compared with the old read-check-save sequence.
+ *
+ * ./mvnw -Pbenchmarks test-compile exec:exec \
+ *     -Dbenchmark.main=org.example.rideshare.benchmark.AcceptContentionBenchmark \
+ *     -Djmh.args="mongodb://localhost:27017 rideshare_bench 500"
+ */
+public class AcceptContentionBenchmark {
+
+    private static final int[] DRIVER_COUNTS = {1, 2, 4, 8, 16, 32, 64};
+
+    public static void main(String[] args) throws Exception {
+        String uri = args.length > 0 ? args[0] : "mongodb://localhost:27017";
+        String database = args.length > 1 ? args[1] : "rideshare_bench";
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 500;
+
+        try (MongoClient client = MongoClients.create(uri)) {
+            MongoTemplate template = new MongoTemplate(client, database);
+            template.dropCollection(Ride.class);
+            RideRepositoryCustomImpl repository = new RideRepositoryCustomImpl(template);
+
+            System.out.printf("%-14s %8s %8s %14s %14s %11s%n",
+                    "mode", "drivers", "rounds", "attempts/sec", "accepts/sec", "violations");
+            for (int drivers : DRIVER_COUNTS) {
+                run("conditional", drivers, rounds, template,
+                        (rideId, driverId) -> repository.acceptIfRequested(rideId, driverId).isPresent());
+                run("read-save", drivers, rounds, template,
+                        (rideId, driverId) -> readCheckSave(template, rideId, driverId));
+            }
+            template.dropCollection(Ride.class);
+        }
+    }
+
+    private static void run(String mode, int drivers, int rounds, MongoTemplate template,
+                            AcceptAttempt attempt) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(drivers);
+        long winners = 0;
+        long violations = 0;
+        long elapsedNanos = 0;
+        try {
+            for (int round = 0; round < rounds; round++) {
+                Ride ride = template.insert(Ride.builder()
+                        .userId("bench-user")
+                        .pickupLocation("A")
+                        .dropLocation("B")
+                        .status(RideStatus.REQUESTED)
+                        .createdAt(new Date())
+                        .build());
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Boolean>> results = new ArrayList<>(drivers);
+                for (int d = 0; d < drivers; d++) {
+                    String driverId = "driver-" + d;
+                    results.add(pool.submit(() -> {
+                        start.await();
+                        return attempt.accept(ride.getId(), driverId);
+                    }));
+                }
+
+                long begin = System.nanoTime();
+                start.countDown();
+                int roundWinners = 0;
+                for (Future<Boolean> result : results) {
+                    if (result.get()) {
+                        roundWinners++;
+                    }
+                }
+                elapsedNanos += System.nanoTime() - begin;
+
+                winners += roundWinners;
+                if (roundWinners != 1) {
+                    violations++;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%-14s %8d %8d %14.0f %14.0f %11d%n",
+                mode, drivers, rounds, (double) rounds * drivers / seconds, winners / seconds, violations);
+    }
+
+    // The pre-change acceptRide sequence: two round trips and a last-write-wins save
+    private static boolean readCheckSave(MongoTemplate template, String rideId, String driverId) {
+        Ride ride = template.findById(rideId, Ride.class);
+        if (ride == null || ride.getStatus() != RideStatus.REQUESTED) {
+            return false;
+        }
+        ride.setDriverId(driverId);
+        ride.setStatus(RideStatus.ACCEPTED);
+        template.save(ride);
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface AcceptAttempt {
+        boolean accept(String rideId, String driverId);
+    }
+}
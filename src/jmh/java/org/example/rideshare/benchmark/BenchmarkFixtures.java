@@ -0,0 +1,113 @@
+package org.example.rideshare.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.example.rideshare.config.JwtFilter;
+import org.example.rideshare.config.VerifiedTokenCache;
+import org.example.rideshare.controller.AuthController;
+import org.example.rideshare.model.Role;
+import org.example.rideshare.model.User;
+import org.example.rideshare.repository.RideRepository;
+import org.example.rideshare.repository.UserRepository;
+import org.example.rideshare.repository.memory.InMemoryDriverLocationRepository;
+import org.example.rideshare.repository.memory.InMemoryPlaceRepository;
+import org.example.rideshare.repository.memory.InMemoryRideEventRepository;
+import org.example.rideshare.service.CustomUserDetailsService;
+import org.example.rideshare.service.DispatchAssignments;
+import org.example.rideshare.service.DriverLocationStore;
+import org.example.rideshare.service.OpenRideGeoIndex;
+import org.example.rideshare.service.OpenRideSnapshot;
+import org.example.rideshare.service.PasswordVerifier;
+import org.example.rideshare.service.PlaceDictionary;
+import org.example.rideshare.service.RideEventLog;
+import org.example.rideshare.service.RideFeed;
+import org.example.rideshare.service.RideMetrics;
+import org.example.rideshare.service.RideService;
+import org.example.rideshare.service.RideSummaryIndex;
+import org.example.rideshare.service.RideVersions;
+import org.example.rideshare.service.UserIdentityCache;
+import org.example.rideshare.util.JwtUtil;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+
+/**
+ * Wires the field-injected services by hand so benchmarks run without a Spring context or MongoDB.
+ */
+public final class BenchmarkFixtures {
+
+    public static final String JWT_SECRET = "ridesharebackendsupersecretkeyforjwttokensigning2025secureandverylongenough";
+    public static final long JWT_EXPIRATION = 86_400_000L;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static User user(UserRepository userRepository, String username, Role role) {
+        return userRepository.save(User.builder()
+                .username(username)
+                .password("$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchm")
+                .role(role)
+                .build());
+    }
+
+    public static UserIdentityCache identityCache(UserRepository userRepository) {
+        return new UserIdentityCache(userRepository, 10_000, Duration.ofMinutes(5));
+    }
+
+    public static RideService rideService(RideRepository rideRepository, UserIdentityCache identityCache) {
+        RideService rideService = new RideService();
+        ReflectionTestUtils.setField(rideService, "rideRepository", rideRepository);
+        ReflectionTestUtils.setField(rideService, "userIdentityCache", identityCache);
+        ReflectionTestUtils.setField(rideService, "openRideIndex", new OpenRideGeoIndex(0.01));
+        ReflectionTestUtils.setField(rideService, "maxNearbyResults", 100);
+        ReflectionTestUtils.setField(rideService, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(rideService, "maxPageSize", 100);
+        ReflectionTestUtils.setField(rideService, "rideMetrics", new RideMetrics(new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(rideService, "rideFeed", new RideFeed(256, 32, 256));
+        // Never started: appends are queued (then dropped once full) without a writer thread
+        ReflectionTestUtils.setField(rideService, "rideEventLog",
+                new RideEventLog(new InMemoryRideEventRepository(), 100_000, 500, Duration.ofMillis(10)));
+        ReflectionTestUtils.setField(rideService, "rideSummaries", new RideSummaryIndex());
+        ReflectionTestUtils.setField(rideService, "driverLocations", new DriverLocationStore(
+                new InMemoryDriverLocationRepository(), 262_144, Duration.ofSeconds(5), 1000, Duration.ofMinutes(2)));
+        ReflectionTestUtils.setField(rideService, "openRideSnapshot",
+                new OpenRideSnapshot(JsonMapper.builder().build(), Duration.ofSeconds(1)));
+        ReflectionTestUtils.setField(rideService, "placeDictionary",
+                new PlaceDictionary(new InMemoryPlaceRepository(), 100_000));
+        ReflectionTestUtils.setField(rideService, "rideVersions", new RideVersions(Duration.ofSeconds(30), 100_000));
+        ReflectionTestUtils.setField(rideService, "dispatchAssignments", new DispatchAssignments());
+        ReflectionTestUtils.setField(rideService, "validator",
+                Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(rideService, "maxBatchSize", 500);
+        return rideService;
+    }
+
+    public static JwtUtil jwtUtil() {
+        return new JwtUtil(JWT_SECRET, JWT_EXPIRATION);
+    }
+
+    public static AuthController authController(UserRepository userRepository, UserIdentityCache identityCache,
+                                                PasswordVerifier passwordVerifier, JwtUtil jwtUtil) {
+        AuthController controller = new AuthController();
+        ReflectionTestUtils.setField(controller, "userRepo", userRepository);
+        ReflectionTestUtils.setField(controller, "passwordVerifier", passwordVerifier);
+        ReflectionTestUtils.setField(controller, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(controller, "userIdentityCache", identityCache);
+        return controller;
+    }
+
+    public static JwtFilter jwtFilter(JwtUtil jwtUtil, UserRepository userRepository,
+                                      VerifiedTokenCache tokenCache, JwtFilter.AuthMode mode) {
+        CustomUserDetailsService userDetailsService = new CustomUserDetailsService();
+        ReflectionTestUtils.setField(userDetailsService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userDetailsService, "userIdentityCache", identityCache(userRepository));
+
+        JwtFilter filter = new JwtFilter();
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "tokenCache", tokenCache);
+        ReflectionTestUtils.setField(filter, "authMode", mode);
+        return filter;
+    }
+}
@@ -0,0 +1,116 @@
+package org.example.rideshare.benchmark;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.service.DispatchMatcher;
+import org.example.rideshare.service.DispatchMatcher.DriverPosition;
+import org.example.rideshare.service.DispatchMatcher.Match;
+import org.example.rideshare.util.GeoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to match one dispatch window: candidate-index greedy (what DispatchEngine runs) versus
+ * greedy over every ride-driver pair within range.
+ *
+ * Rides and drivers are spread over a ~50 km x 50 km city with a 5 km pickup limit. Anything
+ * well under the 1-2 s window leaves room for applying the matches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class DispatchMatcherBenchmark {
+
+    private static final double CENTER_LAT = 12.9716;
+    private static final double CENTER_LNG = 77.5946;
+    private static final double SPREAD_DEGREES = 0.225;
+    private static final double MAX_PICKUP_METERS = 5_000;
+
+    @Param({"1000", "5000"})
+    private int rides;
+
+    @Param({"1000", "5000"})
+    private int drivers;
+
+    private List<Ride> openRides;
+    private List<DriverPosition> availableDrivers;
+    private DispatchMatcher matcher;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        Date now = new Date();
+        openRides = new ArrayList<>(rides);
+        for (int i = 0; i < rides; i++) {
+            openRides.add(Ride.builder()
+                    .id(Integer.toHexString(i))
+                    .userId("user-" + i)
+                    .pickupLocation("pickup")
+                    .dropLocation("drop")
+                    .pickupLat(CENTER_LAT + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES))
+                    .pickupLng(CENTER_LNG + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES))
+                    .status(RideStatus.REQUESTED)
+                    .createdAt(now)
+                    .build());
+        }
+        availableDrivers = new ArrayList<>(drivers);
+        for (int i = 0; i < drivers; i++) {
+            availableDrivers.add(new DriverPosition("driver-" + i,
+                    CENTER_LAT + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES),
+                    CENTER_LNG + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES)));
+        }
+        matcher = new DispatchMatcher(0.01, MAX_PICKUP_METERS, 8);
+    }
+
+    @Benchmark
+    public List<Match> candidateGreedy() {
+        return matcher.match(openRides, availableDrivers);
+    }
+
+    @Benchmark
+    public List<Match> allPairsGreedy() {
+        List<Match> pairs = new ArrayList<>();
+        for (DriverPosition driver : availableDrivers) {
+            for (Ride ride : openRides) {
+                double distance = GeoUtils.distanceMeters(driver.lat(), driver.lng(), ride.getPickupLat(), ride.getPickupLng());
+                if (distance <= MAX_PICKUP_METERS) {
+                    pairs.add(new Match(ride.getId(), driver.driverId(), distance));
+                }
+            }
+        }
+        pairs.sort(Comparator.comparingDouble(Match::distanceMeters));
+
+        Set<String> matchedRides = new HashSet<>();
+        Set<String> matchedDrivers = new HashSet<>();
+        List<Match> matches = new ArrayList<>();
+        for (Match pair : pairs) {
+            if (!matchedDrivers.contains(pair.driverId()) && matchedRides.add(pair.rideId())) {
+                matchedDrivers.add(pair.driverId());
+                matches.add(pair);
+            }
+        }
+        return matches;
+    }
+}
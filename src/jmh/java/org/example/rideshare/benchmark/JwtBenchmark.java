@@ -0,0 +1,112 @@
+package org.example.rideshare.benchmark;
+
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import org.example.rideshare.config.JwtFilter;
+import org.example.rideshare.config.VerifiedTokenCache;
+import org.example.rideshare.model.Role;
+import org.example.rideshare.repository.memory.InMemoryUserRepository;
+import org.example.rideshare.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation, verification and the full JwtFilter path in each auth mode.
+ * Run with {@code -prof gc} for allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtUtil jwtUtil;
+    private String token;
+    private JwtFilter claimsFilter;
+    private JwtFilter uncachedClaimsFilter;
+    private JwtFilter lookupFilter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryUserRepository userRepository = new InMemoryUserRepository();
+        BenchmarkFixtures.user(userRepository, "driver", Role.ROLE_DRIVER);
+
+        jwtUtil = BenchmarkFixtures.jwtUtil();
+        token = jwtUtil.generateToken("driver", Role.ROLE_DRIVER.name());
+
+        claimsFilter = BenchmarkFixtures.jwtFilter(jwtUtil, userRepository,
+                new VerifiedTokenCache(10_000), JwtFilter.AuthMode.CLAIMS);
+        // A zero-sized cache evicts immediately, so every request pays for a full parse
+        uncachedClaimsFilter = BenchmarkFixtures.jwtFilter(jwtUtil, userRepository,
+                new VerifiedTokenCache(0), JwtFilter.AuthMode.CLAIMS);
+        lookupFilter = BenchmarkFixtures.jwtFilter(jwtUtil, userRepository,
+                new VerifiedTokenCache(10_000), JwtFilter.AuthMode.LOOKUP);
+
+        request = new MockHttpServletRequest("GET", "/api/v1/driver/rides/requests");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("driver", Role.ROLE_DRIVER.name());
+    }
+
+    @Benchmark
+    public Claims parseClaims() {
+        return jwtUtil.parseClaims(token);
+    }
+
+    @Benchmark
+    public void extractUsernameThenRole(Blackhole blackhole) {
+        // The two-parse sequence the filter used before parseClaims existed
+        blackhole.consume(jwtUtil.extractUsername(token));
+        blackhole.consume(jwtUtil.extractRole(token));
+    }
+
+    @Benchmark
+    public Authentication filterClaimsCached() throws Exception {
+        return filter(claimsFilter);
+    }
+
+    @Benchmark
+    public Authentication filterClaimsUncached() throws Exception {
+        return filter(uncachedClaimsFilter);
+    }
+
+    @Benchmark
+    public Authentication filterLookup() throws Exception {
+        return filter(lookupFilter);
+    }
+
+    private Authentication filter(JwtFilter filter) throws Exception {
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.example.rideshare.benchmark;
+
+import org.example.rideshare.controller.AuthController;
+import org.example.rideshare.dto.AuthRequest;
+import org.example.rideshare.dto.AuthResponse;
+import org.example.rideshare.model.Role;
+import org.example.rideshare.model.User;
+import org.example.rideshare.repository.memory.InMemoryUserRepository;
+import org.example.rideshare.service.PasswordVerifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logins per second per core: the full AuthController login (user lookup, password check on a
+ * single-thread hashing pool, token) against the bare bcrypt check it is bounded by. The gap is
+ * the cost of everything besides hashing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String PASSWORD = "benchmark-password";
+
+    @Param({"10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+    private PasswordVerifier passwordVerifier;
+    private AuthController authController;
+    private AuthRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode(PASSWORD);
+
+        InMemoryUserRepository userRepository = new InMemoryUserRepository();
+        userRepository.save(User.builder()
+                .username("rider")
+                .password(hash)
+                .role(Role.ROLE_USER)
+                .build());
+
+        passwordVerifier = new PasswordVerifier(encoder, 1, 64);
+        authController = BenchmarkFixtures.authController(userRepository,
+                BenchmarkFixtures.identityCache(userRepository), passwordVerifier, BenchmarkFixtures.jwtUtil());
+
+        request = new AuthRequest();
+        request.setUsername("rider");
+        request.setPassword(PASSWORD);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwordVerifier.shutdown();
+    }
+
+    @Benchmark
+    public ResponseEntity<AuthResponse> login() {
+        return authController.login(request);
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return encoder.matches(PASSWORD, hash);
+    }
+}
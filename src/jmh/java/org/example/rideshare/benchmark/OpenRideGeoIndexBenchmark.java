@@ -0,0 +1,103 @@
+package org.example.rideshare.benchmark;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.service.OpenRideGeoIndex;
+import org.example.rideshare.util.GeoUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Nearest-N driver feed: grid index versus the full scan that getRequestedRides() implies.
+ *
+ * Open rides are spread over a ~50 km x 50 km city; each query asks for the 20 closest
+ * rides within 5 km of a random driver position.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class OpenRideGeoIndexBenchmark {
+
+    private static final double CENTER_LAT = 12.9716;
+    private static final double CENTER_LNG = 77.5946;
+    private static final double SPREAD_DEGREES = 0.225;
+    private static final double RADIUS_METERS = 5_000;
+    private static final int LIMIT = 20;
+
+    @Param({"10000", "100000", "1000000"})
+    private int openRides;
+
+    private List<Ride> allOpenRides;
+    private OpenRideGeoIndex index;
+    private double[] queryLat;
+    private double[] queryLng;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        allOpenRides = new ArrayList<>(openRides);
+        index = new OpenRideGeoIndex(0.01);
+        Date now = new Date();
+        for (int i = 0; i < openRides; i++) {
+            Ride ride = Ride.builder()
+                    .id(Integer.toHexString(i))
+                    .userId("user-" + i)
+                    .pickupLocation("pickup")
+                    .dropLocation("drop")
+                    .pickupLat(CENTER_LAT + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES))
+                    .pickupLng(CENTER_LNG + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES))
+                    .status(RideStatus.REQUESTED)
+                    .createdAt(now)
+                    .build();
+            allOpenRides.add(ride);
+            index.add(ride);
+        }
+
+        queryLat = new double[1024];
+        queryLng = new double[1024];
+        for (int i = 0; i < queryLat.length; i++) {
+            queryLat[i] = CENTER_LAT + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES);
+            queryLng[i] = CENTER_LNG + random.nextDouble(-SPREAD_DEGREES, SPREAD_DEGREES);
+        }
+    }
+
+    @Benchmark
+    public List<Ride> gridIndex() {
+        int q = next++ & (queryLat.length - 1);
+        return index.findNearest(queryLat[q], queryLng[q], RADIUS_METERS, LIMIT);
+    }
+
+    @Benchmark
+    public List<Ride> fullScan() {
+        int q = next++ & (queryLat.length - 1);
+        double lat = queryLat[q];
+        double lng = queryLng[q];
+        return allOpenRides.stream()
+                .filter(r -> GeoUtils.distanceMeters(lat, lng, r.getPickupLat(), r.getPickupLng()) <= RADIUS_METERS)
+                .sorted(Comparator.comparingDouble(
+                        r -> GeoUtils.distanceMeters(lat, lng, r.getPickupLat(), r.getPickupLng())))
+                .limit(LIMIT)
+                .toList();
+    }
+}
@@ -0,0 +1,133 @@
+package org.example.rideshare.service;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.benchmark.BenchmarkFixtures;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.model.Place;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.repository.RideQueries;
+import org.example.rideshare.repository.memory.InMemoryRideRepository;
+import org.example.rideshare.repository.memory.InMemoryUserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding 10k rides for a list response: full Ride documents mapped field by field into
+ * RideResponse (the path before projections) against projected documents read straight into
+ * RideResponse. Both decode with the converter the repositories use, from documents already in
+ * memory, so the numbers exclude the wire. Run with {@code -prof gc} for bytes allocated per 10k.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RideProjectionBenchmark {
+
+    private static final int RIDES = 10_000;
+    private static final int PLACES = 200;
+
+    private MappingMongoConverter converter;
+    private RideService rideService;
+    private List<Document> fullDocuments;
+    private List<Document> projectedDocuments;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        InMemoryUserRepository userRepository = new InMemoryUserRepository();
+        rideService = BenchmarkFixtures.rideService(new InMemoryRideRepository(),
+                BenchmarkFixtures.identityCache(userRepository));
+        PlaceDictionary places = (PlaceDictionary) ReflectionTestUtils.getField(rideService, "placeDictionary");
+        List<Place> interned = new ArrayList<>();
+        for (int i = 0; i < PLACES; i++) {
+            interned.add(places.intern("Place " + i).orElseThrow());
+        }
+
+        // The fields the server returns for RideQueries.RESPONSE_FIELDS
+        Set<String> projected = new HashSet<>(Document.parse(RideQueries.RESPONSE_FIELDS).keySet());
+        projected.remove("id");
+        projected.add("_id");
+
+        fullDocuments = new ArrayList<>(RIDES);
+        projectedDocuments = new ArrayList<>(RIDES);
+        for (int i = 0; i < RIDES; i++) {
+            Place pickup = interned.get(i % PLACES);
+            Place drop = interned.get((i * 7 + 3) % PLACES);
+            Ride ride = Ride.builder()
+                    .id(new ObjectId().toHexString())
+                    .userId(new ObjectId().toHexString())
+                    .pickupPlaceId(pickup.getId())
+                    .dropPlaceId(drop.getId())
+                    .pickupLat(12.9 + (i % PLACES) * 0.001)
+                    .pickupLng(77.5 + (i % PLACES) * 0.001)
+                    .dropLat(13.0 + (i % 97) * 0.001)
+                    .dropLng(77.6 + (i % 97) * 0.001)
+                    .status(RideStatus.REQUESTED)
+                    .createdAt(new Date())
+                    .build();
+            Document document = new Document();
+            converter.write(ride, document);
+            fullDocuments.add(document);
+
+            Document projection = new Document();
+            document.forEach((name, value) -> {
+                if (projected.contains(name)) {
+                    projection.put(name, value);
+                }
+            });
+            projectedDocuments.add(projection);
+        }
+    }
+
+    @Benchmark
+    public List<RideResponse> fullDocumentThenMap() {
+        List<RideResponse> responses = new ArrayList<>(RIDES);
+        for (Document document : fullDocuments) {
+            responses.add(rideService.mapToResponse(converter.read(Ride.class, document)));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<RideResponse> projectedIntoResponse() {
+        List<RideResponse> responses = new ArrayList<>(RIDES);
+        for (Document document : projectedDocuments) {
+            RideResponse response = converter.read(RideResponse.class, document);
+            rideService.resolvePlaces(response);
+            responses.add(response);
+        }
+        return responses;
+    }
+}
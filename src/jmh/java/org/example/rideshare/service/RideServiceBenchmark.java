@@ -0,0 +1,94 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.benchmark.BenchmarkFixtures;
+import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.Role;
+import org.example.rideshare.repository.memory.InMemoryRideRepository;
+import org.example.rideshare.repository.memory.InMemoryUserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RideService hot paths over the in-memory repositories, so the numbers isolate service,
+ * identity-cache and mapping cost from MongoDB. Run with {@code -prof gc} for allocation rates.
+ *
+ * Every benchmark deletes the ride it created so the store stays the same size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RideServiceBenchmark {
+
+    private InMemoryRideRepository rideRepository;
+    private RideService rideService;
+    private CreateRideRequest request;
+    private Ride sampleRide;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        InMemoryUserRepository userRepository = new InMemoryUserRepository();
+        BenchmarkFixtures.user(userRepository, "rider", Role.ROLE_USER);
+        BenchmarkFixtures.user(userRepository, "driver", Role.ROLE_DRIVER);
+
+        rideRepository = new InMemoryRideRepository();
+        rideService = BenchmarkFixtures.rideService(rideRepository, BenchmarkFixtures.identityCache(userRepository));
+
+        request = new CreateRideRequest("Kempegowda International Airport", "MG Road Metro Station");
+        sampleRide = Ride.builder()
+                .id("665f1c2e9b1e8a3d4c5b6a79")
+                .userId("665f1c2e9b1e8a3d4c5b6a70")
+                .driverId("665f1c2e9b1e8a3d4c5b6a71")
+                .pickupLocation("Kempegowda International Airport")
+                .dropLocation("MG Road Metro Station")
+                .status(RideStatus.ACCEPTED)
+                .createdAt(new Date())
+                .build();
+    }
+
+    @Benchmark
+    public RideResponse createRide() {
+        RideResponse created = rideService.createRide(request, "rider");
+        rideRepository.deleteById(created.getId());
+        return created;
+    }
+
+    @Benchmark
+    public RideResponse createAndAccept() {
+        RideResponse created = rideService.createRide(request, "rider");
+        RideResponse accepted = rideService.acceptRide(created.getId(), "driver");
+        rideRepository.deleteById(created.getId());
+        return accepted;
+    }
+
+    @Benchmark
+    public RideResponse createAcceptComplete() {
+        RideResponse created = rideService.createRide(request, "rider");
+        rideService.acceptRide(created.getId(), "driver");
+        RideResponse completed = rideService.completeRide(created.getId(), "rider");
+        rideRepository.deleteById(created.getId());
+        return completed;
+    }
+
+    @Benchmark
+    public RideResponse mapToResponse() {
+        return rideService.mapToResponse(sampleRide);
+    }
+}
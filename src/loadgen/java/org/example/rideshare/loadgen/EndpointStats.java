@@ -0,0 +1,81 @@
+package org.example.rideshare.loadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds, measured from the intended send time) and outcome counters
+ * for one endpoint.
+ */
+class EndpointStats {
+
+    private final String name;
+    private final Histogram latencyMicros = new ConcurrentHistogram(3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void recordResponse(int status, long latencyNanos) {
+        latencyMicros.recordValue(Math.max(1, latencyNanos / 1_000));
+        if (status >= 200 && status < 300) {
+            ok.increment();
+        } else if (status == 409) {
+            conflicts.increment();
+        } else {
+            errors.increment();
+        }
+    }
+
+    void recordFailure(long latencyNanos) {
+        latencyMicros.recordValue(Math.max(1, latencyNanos / 1_000));
+        failures.increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    long successes() {
+        return ok.sum();
+    }
+
+    long total() {
+        return latencyMicros.getTotalCount();
+    }
+
+    static void printHeader(PrintStream out) {
+        out.printf("%-10s %9s %9s %9s %9s %9s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "ok", "409", "errors", "failed", "dropped",
+                "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+    }
+
+    void printRow(PrintStream out) {
+        out.printf("%-10s %9d %9d %9d %9d %9d %9d %9.2f %9.2f %9.2f %9.2f%n",
+                name, total(), ok.sum(), conflicts.sum(), errors.sum(), failures.sum(), dropped.sum(),
+                millis(latencyMicros.getValueAtPercentile(50)),
+                millis(latencyMicros.getValueAtPercentile(99)),
+                millis(latencyMicros.getValueAtPercentile(99.9)),
+                millis(latencyMicros.getMaxValue()));
+    }
+
+    void writePercentiles(PrintStream out) {
+        latencyMicros.outputPercentileDistribution(out, 1_000.0);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
@@ -0,0 +1,431 @@
+package org.example.rideshare.loadgen;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.rideshare.RideshareApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Open-loop load generator for the ride lifecycle.
+ *
+ * Requests are sent on a fixed schedule ({@code --rate} per second) whether or not earlier ones
+ * have finished, and latency is measured from each request's intended send time, so a stalled
+ * server shows up in the percentiles instead of silently lowering the offered load.
+ *
+ * Options (all {@code --name=value}):
+ * <pre>
+ *   target      base URL of a running instance           http://localhost:8081
+ *   embedded    start the app in-process: inmemory|mongo   (off)
+ *   threads     embedded request threads: platform|virtual platform
+ *   stack       embedded web stack: servlet|reactive        servlet
+ *   repoLatency embedded inmemory only: ms each ride/user     0
+ *               repository call sleeps, to stand in for a
+ *               blocking Mongo round trip
+ *   rate        request arrivals per second                200
+ *   duration    measured seconds                           60
+ *   warmup      unmeasured seconds before that             10
+ *   riders      pre-registered ROLE_USER accounts          50
+ *   drivers     pre-registered ROLE_DRIVER accounts        50
+ *   mix         weights per operation                      register:2,login:3,create:25,poll:40,accept:15,complete:15
+ *   maxInFlight requests outstanding before new ones drop  2000
+ *   hgrmDir     directory for per-endpoint .hgrm files     (off)
+ * </pre>
+ * accept and complete need rides from earlier create/accept calls; when none are pending they
+ * are sent as poll instead so the arrival rate stays constant.
+ */
+public class LoadGenerator {
+
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final Pattern RIDE_ID = Pattern.compile("\"id\"\\s*:\\s*\"([^\"]+)\"");
+    private static final String PASSWORD = "loadgen-password";
+
+    enum Operation {
+        REGISTER, LOGIN, CREATE, POLL, ACCEPT, COMPLETE
+    }
+
+    private record Account(String username, String role, AtomicReference<String> token) {
+        String bearer() {
+            return "Bearer " + token.get();
+        }
+    }
+
+    private record PendingRide(String id, Account rider) {
+    }
+
+    private record AcceptedRide(String id, Account rider, Account driver) {
+    }
+
+    private final Map<String, String> options;
+    private final HttpClient http;
+    private final ExecutorService httpExecutor;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong registrations = new AtomicLong();
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+    private final List<Account> riders = new ArrayList<>();
+    private final List<Account> drivers = new ArrayList<>();
+    private final Queue<PendingRide> requested = new ConcurrentLinkedQueue<>();
+    private final Queue<AcceptedRide> accepted = new ConcurrentLinkedQueue<>();
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    // Set when the app runs in-process, so server-side peaks can be reported
+    private MeterRegistry serverMeters;
+    private String target;
+    // Only touched by the dispatcher thread
+    private boolean measuring;
+
+    LoadGenerator(Map<String, String> options) {
+        this.options = options;
+        this.target = option("target", "http://localhost:8081");
+        this.maxInFlight = Integer.parseInt(option("maxInFlight", "2000"));
+        this.inFlight = new Semaphore(maxInFlight);
+        this.httpExecutor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(httpExecutor)
+                .build();
+        for (Operation op : Operation.values()) {
+            stats.put(op, new EndpointStats(op.name().toLowerCase()));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+
+        LoadGenerator generator = new LoadGenerator(options);
+        ConfigurableApplicationContext app = generator.startEmbeddedIfRequested();
+        try {
+            generator.run();
+        } finally {
+            generator.httpExecutor.shutdownNow();
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startEmbeddedIfRequested() {
+        String embedded = option("embedded", "");
+        if (embedded.isEmpty()) {
+            return null;
+        }
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(RideshareApplication.class);
+        if (embedded.equals("inmemory")) {
+            builder.profiles("inmemory");
+        } else if (!embedded.equals("mongo")) {
+            throw new IllegalArgumentException("--embedded must be inmemory or mongo");
+        }
+        String stack = option("stack", "servlet");
+        if (stack.equals("reactive")) {
+            if (!embedded.equals("mongo")) {
+                throw new IllegalArgumentException("--stack=reactive needs --embedded=mongo");
+            }
+            builder.profiles("reactive");
+        } else if (!stack.equals("servlet")) {
+            throw new IllegalArgumentException("--stack must be servlet or reactive");
+        }
+        String threads = option("threads", "platform");
+        if (!threads.equals("platform") && !threads.equals("virtual")) {
+            throw new IllegalArgumentException("--threads must be platform or virtual");
+        }
+        long repoLatency = Long.parseLong(option("repoLatency", "0"));
+        if (repoLatency > 0) {
+            if (!embedded.equals("inmemory")) {
+                throw new IllegalArgumentException("--repoLatency needs --embedded=inmemory");
+            }
+            builder.initializers(context -> context.getBeanFactory()
+                    .addBeanPostProcessor(new RepositoryLatency(Duration.ofMillis(repoLatency))));
+        }
+        ConfigurableApplicationContext context = builder.run("--server.port=0",
+                "--spring.threads.virtual.enabled=" + threads.equals("virtual"));
+        target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        serverMeters = context.getBean(MeterRegistry.class);
+        System.out.println("Started embedded instance (" + embedded + ", " + stack + ", " + threads + " threads"
+                + (repoLatency > 0 ? ", " + repoLatency + " ms per repository call" : "") + ") at " + target);
+        return context;
+    }
+
+    void run() throws Exception {
+        int rate = Integer.parseInt(option("rate", "200"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("duration", "60")));
+        long warmupNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("warmup", "10")));
+        WeightedMix mix = WeightedMix.parse(option("mix", "register:2,login:3,create:25,poll:40,accept:15,complete:15"));
+
+        createAccounts(riders, "ROLE_USER", Integer.parseInt(option("riders", "50")));
+        createAccounts(drivers, "ROLE_DRIVER", Integer.parseInt(option("drivers", "50")));
+        System.out.printf("Target %s, %d req/s for %ds after %ds warmup, mix %s%n",
+                target, rate, TimeUnit.NANOSECONDS.toSeconds(durationNanos),
+                TimeUnit.NANOSECONDS.toSeconds(warmupNanos), mix);
+
+        SplittableRandom random = new SplittableRandom(Long.parseLong(option("seed", "42")));
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long end = measureFrom + durationNanos;
+        List<CompletableFuture<?>> tail = new ArrayList<>();
+        ResourceSampler sampler = serverMeters != null ? new ResourceSampler(serverMeters) : null;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            measuring = intended >= measureFrom;
+            CompletableFuture<?> sent = fire(mix.pick(random), random, intended);
+            if (end - intended < TimeUnit.SECONDS.toNanos(1)) {
+                tail.add(sent);
+            }
+        }
+
+        // Let the final second of requests finish so they are not reported as missing
+        CompletableFuture.allOf(tail.toArray(new CompletableFuture[0]))
+                .orTimeout(30, TimeUnit.SECONDS)
+                .exceptionally(e -> null)
+                .join();
+        if (sampler != null) {
+            sampler.close();
+        }
+        report(durationNanos, sampler);
+    }
+
+    private CompletableFuture<?> fire(Operation op, SplittableRandom random, long intended) {
+        switch (op) {
+            case REGISTER -> {
+                String username = "lg-" + runId + "-" + registrations.incrementAndGet();
+                return send(op, post("/api/auth/register", registerBody(username, "ROLE_USER"), null), intended, null);
+            }
+            case LOGIN -> {
+                Account rider = pick(riders, random);
+                return send(op, post("/api/auth/login", loginBody(rider.username()), null), intended, body -> {
+                    Matcher token = TOKEN.matcher(body);
+                    if (token.find()) {
+                        rider.token().set(token.group(1));
+                    }
+                });
+            }
+            case CREATE -> {
+                Account rider = pick(riders, random);
+                double lat = 12.97 + random.nextDouble(-0.2, 0.2);
+                double lng = 77.59 + random.nextDouble(-0.2, 0.2);
+                String body = String.format(Locale.ROOT,
+                        "{\"pickupLocation\":\"Pickup %d\",\"dropLocation\":\"Drop %d\",\"pickupLat\":%.6f,\"pickupLng\":%.6f}",
+                        random.nextInt(500), random.nextInt(500), lat, lng);
+                return send(op, post("/api/v1/rides", body, rider), intended, response -> {
+                    Matcher id = RIDE_ID.matcher(response);
+                    if (id.find()) {
+                        requested.offer(new PendingRide(id.group(1), rider));
+                    }
+                });
+            }
+            case ACCEPT -> {
+                PendingRide ride = requested.poll();
+                if (ride == null) {
+                    return fire(Operation.POLL, random, intended);
+                }
+                Account driver = pick(drivers, random);
+                return send(op, post("/api/v1/driver/rides/" + ride.id() + "/accept", "", driver), intended,
+                        body -> accepted.offer(new AcceptedRide(ride.id(), ride.rider(), driver)));
+            }
+            case COMPLETE -> {
+                AcceptedRide ride = accepted.poll();
+                if (ride == null) {
+                    return fire(Operation.POLL, random, intended);
+                }
+                Account who = random.nextBoolean() ? ride.rider() : ride.driver();
+                return send(op, post("/api/v1/rides/" + ride.id() + "/complete", "", who), intended, null);
+            }
+            default -> {
+                Account driver = pick(drivers, random);
+                HttpRequest request = authorized("/api/v1/driver/rides/requests?limit=20", driver).GET().build();
+                return send(Operation.POLL, request, intended, null);
+            }
+        }
+    }
+
+    private CompletableFuture<?> send(Operation op, HttpRequest request, long intended,
+                                      Consumer<String> onSuccess) {
+        EndpointStats endpoint = stats.get(op);
+        boolean record = measuring;
+        if (!inFlight.tryAcquire()) {
+            if (record) {
+                endpoint.recordDropped();
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        // HTTP/1.1 without pipelining: every outstanding request holds its own connection
+        peakInFlight.accumulateAndGet(maxInFlight - inFlight.availablePermits(), Math::max);
+        return http.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    inFlight.release();
+                    long latency = System.nanoTime() - intended;
+                    if (error != null) {
+                        if (record) {
+                            endpoint.recordFailure(latency);
+                        }
+                        return;
+                    }
+                    if (record) {
+                        endpoint.recordResponse(response.statusCode(), latency);
+                    }
+                    if (onSuccess != null && response.statusCode() / 100 == 2) {
+                        onSuccess.accept(response.body());
+                    }
+                });
+    }
+
+    private void createAccounts(List<Account> accounts, String role, int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            String username = "lg-" + runId + "-" + role.substring(5).toLowerCase() + "-" + i;
+            expectOk(http.send(post("/api/auth/register", registerBody(username, role), null),
+                    HttpResponse.BodyHandlers.ofString()));
+            HttpResponse<String> login = expectOk(http.send(post("/api/auth/login", loginBody(username), null),
+                    HttpResponse.BodyHandlers.ofString()));
+            Matcher token = TOKEN.matcher(login.body());
+            if (!token.find()) {
+                throw new IllegalStateException("No token in login response: " + login.body());
+            }
+            accounts.add(new Account(username, role, new AtomicReference<>(token.group(1))));
+        }
+    }
+
+    private void report(long durationNanos, ResourceSampler sampler) throws IOException {
+        double seconds = durationNanos / 1e9;
+        PrintStream out = System.out;
+        out.println();
+        EndpointStats.printHeader(out);
+        long total = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            endpoint.printRow(out);
+            total += endpoint.total();
+        }
+        out.printf("%nachieved %.1f req/s, %.1f completed ride lifecycles/s%n",
+                total / seconds, stats.get(Operation.COMPLETE).successes() / seconds);
+        out.printf("peak in-flight requests (open client connections): %d%n", peakInFlight.get());
+        if (sampler != null) {
+            sampler.print(out);
+        }
+
+        String hgrmDir = option("hgrmDir", "");
+        if (!hgrmDir.isEmpty()) {
+            Path dir = Files.createDirectories(Path.of(hgrmDir));
+            for (EndpointStats endpoint : stats.values()) {
+                try (PrintStream file = new PrintStream(Files.newOutputStream(dir.resolve(endpoint.name() + ".hgrm")))) {
+                    endpoint.writePercentiles(file);
+                }
+            }
+            out.println("Wrote percentile distributions to " + dir.toAbsolutePath());
+        }
+    }
+
+    private HttpRequest post(String path, String json, Account account) {
+        HttpRequest.Builder builder = account != null
+                ? authorized(path, account)
+                : HttpRequest.newBuilder(URI.create(target + path)).timeout(Duration.ofSeconds(30));
+        return builder.header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    private HttpRequest.Builder authorized(String path, Account account) {
+        return HttpRequest.newBuilder(URI.create(target + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", account.bearer());
+    }
+
+    private static String registerBody(String username, String role) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\",\"role\":\"" + role + "\"}";
+    }
+
+    private static String loginBody(String username) {
+        return "{\"username\":\"" + username + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private static HttpResponse<String> expectOk(HttpResponse<String> response) {
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Setup request failed with " + response.statusCode() + ": " + response.body());
+        }
+        return response;
+    }
+
+    private static <T> T pick(List<T> items, SplittableRandom random) {
+        return items.get(random.nextInt(items.size()));
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    /**
+     * Operation picker driven by integer weights, e.g. "create:25,poll:40".
+     */
+    record WeightedMix(Operation[] slots, String description) {
+
+        static WeightedMix parse(String spec) {
+            List<Operation> slots = new ArrayList<>();
+            for (String part : spec.split(",")) {
+                String[] pair = part.trim().split(":");
+                Operation op = Operation.valueOf(pair[0].trim().toUpperCase());
+                int weight = Integer.parseInt(pair[1].trim());
+                for (int i = 0; i < weight; i++) {
+                    slots.add(op);
+                }
+            }
+            if (slots.isEmpty()) {
+                throw new IllegalArgumentException("mix must contain at least one positive weight");
+            }
+            return new WeightedMix(slots.toArray(new Operation[0]), spec);
+        }
+
+        Operation pick(SplittableRandom random) {
+            return slots[random.nextInt(slots.length)];
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.rideshare.loadgen;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.example.rideshare.repository.RideRepository;
+import org.example.rideshare.repository.UserRepository;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.time.Duration;
+
+/**
+ * Makes every ride and user repository call of an in-memory instance sleep first, so request
+ * threads block the way they do on Mongo round trips and threading models can be compared
+ * without a database.
+ */
+class RepositoryLatency implements BeanPostProcessor {
+
+    private final Duration latency;
+
+    RepositoryLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof RideRepository) && !(bean instanceof UserRepository)) {
+            return bean;
+        }
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            if (invocation.getMethod().getDeclaringClass() != Object.class) {
+                Thread.sleep(latency.toMillis());
+            }
+            return invocation.proceed();
+        });
+        return proxyFactory.getProxy();
+    }
+}
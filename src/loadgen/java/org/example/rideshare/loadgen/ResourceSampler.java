@@ -0,0 +1,58 @@
+package org.example.rideshare.loadgen;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Peak resource use of an embedded instance during a run, sampled from its meter registry:
+ * live threads and Mongo connections (open and checked out, summed over all pools).
+ */
+class ResourceSampler implements AutoCloseable {
+
+    private static final List<String> GAUGES = List.of(
+            "jvm.threads.live",
+            "mongodb.driver.pool.size",
+            "mongodb.driver.pool.checkedout");
+
+    private final MeterRegistry registry;
+    private final Map<String, Double> peaks = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "resource-sampler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ResourceSampler(MeterRegistry registry) {
+        this.registry = registry;
+        timer.scheduleAtFixedRate(this::sample, 0, 100, TimeUnit.MILLISECONDS);
+    }
+
+    private void sample() {
+        for (String name : GAUGES) {
+            double value = registry.find(name).gauges().stream()
+                    .mapToDouble(Gauge::value)
+                    .sum();
+            peaks.merge(name, value, Math::max);
+        }
+    }
+
+    void print(PrintStream out) {
+        out.println("server peaks:");
+        for (String name : GAUGES) {
+            out.printf("  %-32s %8.0f%n", name, peaks.getOrDefault(name, 0.0));
+        }
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+}
@@ -2,21 +2,26 @@ package org.example.rideshare.config;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
 import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
 
 import java.util.stream.Collectors;
 
 @Configuration
+@Profile("!reactive")
 public class EndpointLogger {
 
     private static final Logger log = LoggerFactory.getLogger(EndpointLogger.class);
 
+    // Actuator registers a second RequestMappingHandlerMapping for its own endpoints
     @Bean
-    public CommandLineRunner logEndpoints(RequestMappingHandlerMapping handlerMapping) {
+    public CommandLineRunner logEndpoints(
+            @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping) {
         return args -> {
             try {
                 var mappings = handlerMapping.getHandlerMethods();
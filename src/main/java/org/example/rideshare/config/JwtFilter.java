@@ -1,5 +1,6 @@
 package org.example.rideshare.config;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,8 +8,11 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.example.rideshare.service.CustomUserDetailsService;
 import org.example.rideshare.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -16,14 +20,31 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
+@Profile("!reactive")
 public class JwtFilter extends OncePerRequestFilter {
 
+    /**
+     * CLAIMS trusts the verified subject and role claims, so the filter never queries Mongo;
+     * a role change or deleted user only takes effect once the token expires.
+     * LOOKUP loads the user on every request, as before.
+     */
+    public enum AuthMode {
+        CLAIMS,
+        LOOKUP
+    }
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
     private CustomUserDetailsService userDetailsService;
 
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Value("${jwt.auth-mode:CLAIMS}")
+    private AuthMode authMode;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
@@ -31,27 +52,41 @@ public class JwtFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
 
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
-
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtUtil.extractUsername(token);
-        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            var userDetails = userDetailsService.loadUserByUsername(username);
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authHeader.substring(7);
+            try {
+                UsernamePasswordAuthenticationToken authToken = authMode == AuthMode.LOOKUP
+                        ? authenticateByLookup(token)
+                        : authenticateByClaims(token);
 
-            UsernamePasswordAuthenticationToken authToken =
-                    new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource()
+                        .buildDetails(request));
 
-            authToken.setDetails(new WebAuthenticationDetailsSource()
-                    .buildDetails(request));
-
-            SecurityContextHolder.getContext().setAuthentication(authToken);
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            } catch (JwtException | IllegalArgumentException | UsernameNotFoundException e) {
+                // Invalid, expired or orphaned token: continue unauthenticated and let security reject it
+                logger.debug("Rejected bearer token: " + e.getMessage());
+            }
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private UsernamePasswordAuthenticationToken authenticateByClaims(String token) {
+        VerifiedTokenCache.VerifiedToken verified = tokenCache.get(token, this::verify);
+        return new UsernamePasswordAuthenticationToken(verified.username(), null, verified.authorities());
+    }
+
+    private VerifiedTokenCache.VerifiedToken verify(String token) {
+        return VerifiedTokenCache.VerifiedToken.of(jwtUtil.parseClaims(token));
+    }
+
+    private UsernamePasswordAuthenticationToken authenticateByLookup(String token) {
+        String username = jwtUtil.extractUsername(token);
+        var userDetails = userDetailsService.loadUserByUsername(username);
+        return new UsernamePasswordAuthenticationToken(
+                userDetails, null, userDetails.getAuthorities());
+    }
 }
@@ -0,0 +1,82 @@
+package org.example.rideshare.config;
+
+import io.jsonwebtoken.JwtException;
+import org.example.rideshare.util.JwtUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Reactive counterpart of {@link JwtFilter}: same auth modes, same verified-token cache, and the
+ * same outcome for bad tokens (the exchange continues unauthenticated and security rejects it).
+ */
+@Component
+@Profile("reactive")
+public class JwtWebFilter implements WebFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtWebFilter.class);
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private ReactiveUserDetailsService userDetailsService;
+
+    @Autowired
+    private VerifiedTokenCache tokenCache;
+
+    @Value("${jwt.auth-mode:CLAIMS}")
+    private JwtFilter.AuthMode authMode;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        String token = authHeader.substring(7);
+        Mono<UsernamePasswordAuthenticationToken> authentication = authMode == JwtFilter.AuthMode.LOOKUP
+                ? authenticateByLookup(token)
+                : Mono.fromCallable(() -> authenticateByClaims(token));
+
+        return authentication
+                .map(ReactiveSecurityContextHolder::withAuthentication)
+                .onErrorResume(e -> e instanceof JwtException
+                        || e instanceof IllegalArgumentException
+                        || e instanceof UsernameNotFoundException, e -> {
+                    log.debug("Rejected bearer token: {}", e.getMessage());
+                    return Mono.empty();
+                })
+                .defaultIfEmpty(Context.empty())
+                .flatMap(context -> chain.filter(exchange).contextWrite(context));
+    }
+
+    // CPU-only (signature check or cache hit), so it runs inline on the event loop
+    private UsernamePasswordAuthenticationToken authenticateByClaims(String token) {
+        VerifiedTokenCache.VerifiedToken verified = tokenCache.get(token,
+                t -> VerifiedTokenCache.VerifiedToken.of(jwtUtil.parseClaims(t)));
+        return new UsernamePasswordAuthenticationToken(verified.username(), null, verified.authorities());
+    }
+
+    private Mono<UsernamePasswordAuthenticationToken> authenticateByLookup(String token) {
+        return Mono.fromCallable(() -> jwtUtil.extractUsername(token))
+                .flatMap(userDetailsService::findByUsername)
+                .switchIfEmpty(Mono.error(() -> new UsernameNotFoundException("User not found")))
+                .map(userDetails -> new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities()));
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.rideshare.config;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.IndexOptions;
+import org.bson.Document;
+import org.example.rideshare.RideStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Creates the indexes the repository queries rely on and checks, via explain, that none of the
+ * hot queries falls back to a collection scan.
+ *
+ * Behavior is controlled by {@code mongo.indexes.on-failure}:
+ * - WARN (default): log problems and keep starting
+ * - FAIL: abort startup
+ * - OFF: skip index management entirely
+ */
+@Configuration
+@Profile("!inmemory")
+public class MongoIndexInitializer {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexInitializer.class);
+
+    public enum OnFailure {
+        WARN,
+        FAIL,
+        OFF
+    }
+
+    /**
+     * The full managed index set. Sort keys include _id so keyset pagination is index-only.
+     */
+    static final List<ManagedIndex> INDEXES = List.of(
+            new ManagedIndex("users", "username_unique",
+                    new Document("username", 1), true),
+            new ManagedIndex("rides", "status_createdAt_id",
+                    new Document("status", 1).append("createdAt", 1).append("_id", 1), false),
+            new ManagedIndex("rides", "userId_createdAt_id",
+                    new Document("userId", 1).append("createdAt", -1).append("_id", -1), false),
+            new ManagedIndex("rides_archive", "userId_createdAt_id",
+                    new Document("userId", 1).append("createdAt", -1).append("_id", -1), false),
+            // Also stops a second writer from reusing offsets
+            new ManagedIndex("ride_events", "sequence_unique",
+                    new Document("sequence", 1), true)
+    );
+
+    /**
+     * One representative shape per repository query on the request path.
+     */
+    static final List<HotQuery> HOT_QUERIES = List.of(
+            new HotQuery("UserRepository.findByUsername", "users",
+                    new Document("username", "explain-probe"), null),
+            new HotQuery("RideRepository.findByStatus", "rides",
+                    new Document("status", RideStatus.REQUESTED.name()), null),
+            new HotQuery("RideRepository.findByUserId", "rides",
+                    new Document("userId", "explain-probe"), null),
+            new HotQuery("RideRepository.findByStatusAfter", "rides",
+                    new Document("status", RideStatus.REQUESTED.name()),
+                    new Document("createdAt", 1).append("_id", 1)),
+            new HotQuery("RideRepository.findByUserIdAfter", "rides",
+                    new Document("userId", "explain-probe"),
+                    new Document("createdAt", -1).append("_id", -1)),
+            new HotQuery("RideRepository.archiveCompleted", "rides",
+                    new Document("status", RideStatus.COMPLETED.name())
+                            .append("createdAt", new Document("$lt", new Date())),
+                    new Document("createdAt", 1).append("_id", 1)),
+            new HotQuery("RideRepository.findArchivedByUserIdAfter", "rides_archive",
+                    new Document("userId", "explain-probe"),
+                    new Document("createdAt", -1).append("_id", -1)),
+            new HotQuery("RideEventRepository.findBySequenceGreaterThan", "ride_events",
+                    new Document("sequence", new Document("$gt", 0L)),
+                    new Document("sequence", 1))
+    );
+
+    @Value("${mongo.indexes.on-failure:WARN}")
+    private OnFailure onFailure;
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public ApplicationRunner manageMongoIndexes(MongoTemplate mongoTemplate) {
+        return args -> {
+            if (onFailure == OnFailure.OFF) {
+                log.info("Mongo index management is disabled");
+                return;
+            }
+
+            List<String> problems = new ArrayList<>();
+            for (ManagedIndex index : INDEXES) {
+                ensureIndex(mongoTemplate, index, problems);
+            }
+            for (HotQuery query : HOT_QUERIES) {
+                checkPlan(mongoTemplate, query, problems);
+            }
+
+            if (problems.isEmpty()) {
+                log.info("Verified {} Mongo indexes and {} query plans", INDEXES.size(), HOT_QUERIES.size());
+                return;
+            }
+            problems.forEach(problem -> log.warn("Mongo index check: {}", problem));
+            if (onFailure == OnFailure.FAIL) {
+                throw new IllegalStateException("Mongo index verification failed: " + problems);
+            }
+        };
+    }
+
+    private void ensureIndex(MongoTemplate mongoTemplate, ManagedIndex index, List<String> problems) {
+        MongoCollection<Document> collection = mongoTemplate.getCollection(index.collection());
+        try {
+            // No-op when an identical index exists; errors if the name is taken by a different definition
+            collection.createIndex(index.keys(), new IndexOptions().name(index.name()).unique(index.unique()));
+        } catch (MongoException e) {
+            problems.add("could not create " + index.collection() + "." + index.name() + ": " + e.getMessage());
+            return;
+        }
+
+        boolean present = false;
+        for (Document existing : collection.listIndexes()) {
+            if (index.name().equals(existing.getString("name"))) {
+                present = index.keys().equals(existing.get("key", Document.class))
+                        && index.unique() == existing.getBoolean("unique", false);
+            }
+        }
+        if (!present) {
+            problems.add(index.collection() + "." + index.name() + " does not match its declared definition");
+        }
+    }
+
+    private void checkPlan(MongoTemplate mongoTemplate, HotQuery query, List<String> problems) {
+        Document find = new Document("find", query.collection()).append("filter", query.filter());
+        if (query.sort() != null) {
+            find.append("sort", query.sort());
+        }
+        try {
+            Document explain = mongoTemplate.getDb().runCommand(
+                    new Document("explain", find).append("verbosity", "queryPlanner"));
+            Document planner = explain.get("queryPlanner", Document.class);
+            Object winningPlan = planner != null ? planner.get("winningPlan") : null;
+            if (winningPlan == null) {
+                problems.add("no winning plan reported for " + query.name());
+            } else if (containsStage(winningPlan, "COLLSCAN")) {
+                problems.add(query.name() + " uses a COLLSCAN");
+            } else if (query.sort() != null && containsStage(winningPlan, "SORT")) {
+                problems.add(query.name() + " sorts in memory instead of reading index order");
+            }
+        } catch (MongoException e) {
+            problems.add("could not explain " + query.name() + ": " + e.getMessage());
+        }
+    }
+
+    // Plan shapes differ between classic and SBE engines, so search the whole tree
+    private static boolean containsStage(Object node, String stage) {
+        if (node instanceof Document document) {
+            if (stage.equals(document.get("stage"))) {
+                return true;
+            }
+            for (Object child : document.values()) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        } else if (node instanceof List<?> list) {
+            for (Object child : list) {
+                if (containsStage(child, stage)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    record ManagedIndex(String collection, String name, Document keys, boolean unique) {
+    }
+
+    record HotQuery(String name, String collection, Document filter, Document sort) {
+    }
+}
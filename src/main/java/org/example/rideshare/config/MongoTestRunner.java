@@ -3,11 +3,13 @@ package org.example.rideshare.config;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.mongodb.core.MongoTemplate;
 
 import java.util.ArrayList;
 
 @Configuration
+@Profile("!inmemory")
 public class MongoTestRunner {
 
 
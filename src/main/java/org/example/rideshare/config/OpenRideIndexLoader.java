@@ -0,0 +1,28 @@
+package org.example.rideshare.config;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.repository.RideRepository;
+import org.example.rideshare.service.OpenRideGeoIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Seeds the open-ride geo index from the rides that were already REQUESTED when the
+ * application started. After that the index is kept current by RideService.
+ */
+@Configuration
+public class OpenRideIndexLoader {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenRideIndexLoader.class);
+
+    @Bean
+    public ApplicationRunner loadOpenRideIndex(RideRepository rideRepository, OpenRideGeoIndex openRideIndex) {
+        return args -> {
+            rideRepository.findByStatus(RideStatus.REQUESTED).forEach(openRideIndex::add);
+            log.info("Indexed {} open ride requests with pickup coordinates", openRideIndex.size());
+        };
+    }
+}
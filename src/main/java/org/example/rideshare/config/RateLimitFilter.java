@@ -0,0 +1,73 @@
+package org.example.rideshare.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.rideshare.dto.ErrorResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * Applies {@link RateLimiter} right after {@link JwtFilter}, so limits are per authenticated
+ * caller and a rejected request never reaches a controller or the repositories.
+ */
+@Component
+@Profile("!reactive")
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        long wait = rateLimiter.acquire(path, SecurityContextHolder.getContext().getAuthentication(),
+                request.getRemoteAddr());
+        if (wait > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, RateLimiter.retryAfterSeconds(wait),
+                    "TOO_MANY_REQUESTS", "Rate limit exceeded");
+            return;
+        }
+
+        if (!rateLimiter.isConcurrencyLimited(path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        if (!rateLimiter.tryEnter()) {
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    "SERVICE_UNAVAILABLE", "Server is busy, retry shortly");
+            return;
+        }
+        // Async responses (SSE, NDJSON) release the slot once the handler hands off, not when the stream ends
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            rateLimiter.exit();
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                        String error, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getOutputStream().write(objectMapper.writeValueAsBytes(new ErrorResponse(error, message)));
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.rideshare.config;
+
+import org.example.rideshare.dto.ErrorResponse;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.InetSocketAddress;
+import java.util.Optional;
+
+/**
+ * Reactive counterpart of {@link RateLimitFilter}, placed right after {@link JwtWebFilter}.
+ *
+ * Not a bean: WebFlux would also apply every WebFilter bean globally, taking a second token and
+ * slot per request. The concurrency slot is held until the response completes, so streaming
+ * endpoints must be listed in {@code rate-limit.concurrency-exempt}.
+ */
+public class RateLimitWebFilter implements WebFilter {
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitWebFilter(RateLimiter rateLimiter, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        return ReactiveSecurityContextHolder.getContext()
+                .mapNotNull(SecurityContext::getAuthentication)
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(authentication -> admit(exchange, chain, authentication.orElse(null)));
+    }
+
+    private Mono<Void> admit(ServerWebExchange exchange, WebFilterChain chain, Authentication authentication) {
+        String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        InetSocketAddress remote = exchange.getRequest().getRemoteAddress();
+        long wait = rateLimiter.acquire(path, authentication,
+                remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : "unknown");
+        if (wait > 0) {
+            return reject(exchange.getResponse(), HttpStatus.TOO_MANY_REQUESTS, RateLimiter.retryAfterSeconds(wait),
+                    "TOO_MANY_REQUESTS", "Rate limit exceeded");
+        }
+
+        if (!rateLimiter.isConcurrencyLimited(path)) {
+            return chain.filter(exchange);
+        }
+        if (!rateLimiter.tryEnter()) {
+            return reject(exchange.getResponse(), HttpStatus.SERVICE_UNAVAILABLE, 1,
+                    "SERVICE_UNAVAILABLE", "Server is busy, retry shortly");
+        }
+        return chain.filter(exchange)
+                .doFinally(signal -> rateLimiter.exit());
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, HttpStatus status, long retryAfterSeconds,
+                              String error, String message) {
+        response.setStatusCode(status);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory()
+                .wrap(objectMapper.writeValueAsBytes(new ErrorResponse(error, message)));
+        return response.writeWith(Mono.just(body));
+    }
+}
@@ -0,0 +1,246 @@
+package org.example.rideshare.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Admission control shared by {@link RateLimitFilter} and {@link RateLimitWebFilter}.
+ *
+ * Rate limits: {@code rate-limit.routes} is a comma-separated list of
+ * {@code <path pattern>=<permits per second>:<burst>}; the first pattern matching the request
+ * path applies. Each caller gets a token bucket per route, keyed by username (or by role with
+ * {@code rate-limit.key=ROLE}, or by client address when unauthenticated). A bucket is a single
+ * AtomicLong holding the time at which it will be full again (GCRA), updated by compare-and-set,
+ * so concurrent requests from the same caller never block each other. Idle buckets are full by
+ * definition and are dropped from the bounded key cache.
+ *
+ * Concurrency limit: at most {@code rate-limit.max-concurrent} requests are in flight at once;
+ * beyond that requests are rejected immediately instead of queueing for a Mongo connection. The
+ * default matches the Mongo driver's connection pool size. Long-lived paths such as the SSE feed
+ * belong in {@code rate-limit.concurrency-exempt}.
+ */
+@Component
+public class RateLimiter implements MeterBinder {
+
+    /**
+     * USERNAME gives every caller its own buckets; ROLE shares one bucket per route among all
+     * callers with the same role.
+     */
+    public enum KeyMode {
+        USERNAME,
+        ROLE
+    }
+
+    private static final PathPatternParser PARSER = new PathPatternParser();
+
+    private final boolean enabled;
+    private final KeyMode keyMode;
+    private final List<Route> routes;
+    private final List<PathPattern> concurrencyExempt;
+    private final int maxConcurrent;
+    private final Semaphore inFlight;
+    private final long epoch = System.nanoTime();
+    private Counter rateLimited;
+    private Counter shed;
+
+    public RateLimiter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                       @Value("${rate-limit.key:USERNAME}") KeyMode keyMode,
+                       @Value("${rate-limit.routes:}") String routes,
+                       @Value("${rate-limit.max-keys:100000}") long maxKeys,
+                       @Value("${rate-limit.max-concurrent:100}") int maxConcurrent,
+                       @Value("${rate-limit.concurrency-exempt:/actuator/**}") List<String> concurrencyExempt) {
+        if (maxConcurrent < 1) {
+            throw new IllegalArgumentException("rate-limit.max-concurrent must be at least 1");
+        }
+        this.enabled = enabled;
+        this.keyMode = keyMode;
+        this.routes = parseRoutes(routes, maxKeys);
+        this.concurrencyExempt = concurrencyExempt.stream()
+                .map(String::trim)
+                .filter(pattern -> !pattern.isEmpty())
+                .map(PARSER::parse)
+                .toList();
+        this.maxConcurrent = maxConcurrent;
+        this.inFlight = new Semaphore(maxConcurrent);
+    }
+
+    /**
+     * Takes a token from the caller's bucket for the route matching {@code path}. Returns 0 when
+     * the request is admitted, otherwise how long until the next token, in nanoseconds.
+     */
+    public long acquire(String path, Authentication authentication, String remoteAddress) {
+        if (!enabled || routes.isEmpty()) {
+            return 0;
+        }
+        Route route = routeFor(path);
+        if (route == null) {
+            return 0;
+        }
+        long wait = route.acquire(key(authentication, remoteAddress), System.nanoTime() - epoch);
+        if (wait > 0 && rateLimited != null) {
+            rateLimited.increment();
+        }
+        return wait;
+    }
+
+    public boolean isConcurrencyLimited(String path) {
+        if (!enabled) {
+            return false;
+        }
+        PathContainer container = PathContainer.parsePath(path);
+        for (PathPattern pattern : concurrencyExempt) {
+            if (pattern.matches(container)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Claims an in-flight slot without waiting; a true result must be paired with {@link #exit()}.
+     */
+    public boolean tryEnter() {
+        if (inFlight.tryAcquire()) {
+            return true;
+        }
+        if (shed != null) {
+            shed.increment();
+        }
+        return false;
+    }
+
+    public void exit() {
+        inFlight.release();
+    }
+
+    public int inFlight() {
+        return maxConcurrent - inFlight.availablePermits();
+    }
+
+    /**
+     * Whole seconds for a Retry-After header, rounded up so a client retrying on time succeeds.
+     */
+    public static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        // Same meter as GlobalExceptionHandler, so rejections before a controller show up alongside the rest
+        rateLimited = Counter.builder("api.rejections")
+                .tag("exception", "RateLimitExceeded")
+                .tag("status", "429")
+                .register(registry);
+        shed = Counter.builder("api.rejections")
+                .tag("exception", "ConcurrencyLimitExceeded")
+                .tag("status", "503")
+                .register(registry);
+        Gauge.builder("api.inflight", this, RateLimiter::inFlight)
+                .description("Requests holding a concurrency-limiter slot")
+                .register(registry);
+    }
+
+    private Route routeFor(String path) {
+        PathContainer container = PathContainer.parsePath(path);
+        for (Route route : routes) {
+            if (route.pattern.matches(container)) {
+                return route.unlimited ? null : route;
+            }
+        }
+        return null;
+    }
+
+    private String key(Authentication authentication, String remoteAddress) {
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken
+                || !authentication.isAuthenticated()) {
+            return "address:" + remoteAddress;
+        }
+        if (keyMode == KeyMode.ROLE) {
+            Iterator<? extends GrantedAuthority> authorities = authentication.getAuthorities().iterator();
+            if (authorities.hasNext()) {
+                return authorities.next().getAuthority();
+            }
+        }
+        return authentication.getName();
+    }
+
+    // "/api/v1/driver/rides/requests/**=2:10, /api/v1/**=20:40"; a rate of 0 means unlimited
+    private static List<Route> parseRoutes(String spec, long maxKeys) {
+        List<Route> routes = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int equals = entry.lastIndexOf('=');
+            int colon = entry.lastIndexOf(':');
+            if (equals < 0 || colon < equals) {
+                throw new IllegalArgumentException("rate-limit.routes entry must be <pattern>=<per second>:<burst>: " + entry);
+            }
+            PathPattern pattern = PARSER.parse(entry.substring(0, equals).trim());
+            double perSecond = Double.parseDouble(entry.substring(equals + 1, colon).trim());
+            int burst = Integer.parseInt(entry.substring(colon + 1).trim());
+            if (perSecond < 0 || burst < 1) {
+                throw new IllegalArgumentException("rate-limit.routes rate must be >= 0 and burst >= 1: " + entry);
+            }
+            routes.add(new Route(pattern, perSecond, burst, maxKeys));
+        }
+        return List.copyOf(routes);
+    }
+
+    private static final class Route {
+
+        private final PathPattern pattern;
+        private final boolean unlimited;
+        private final long intervalNanos;
+        private final long burstNanos;
+        // Per caller: the time at which the bucket is full again, relative to epoch
+        private final Cache<String, AtomicLong> buckets;
+
+        Route(PathPattern pattern, double perSecond, int burst, long maxKeys) {
+            this.pattern = pattern;
+            this.unlimited = perSecond == 0;
+            this.intervalNanos = unlimited ? 0 : (long) (TimeUnit.SECONDS.toNanos(1) / perSecond);
+            this.burstNanos = intervalNanos * burst;
+            // An entry idle for longer than a full refill is equivalent to a new one
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(Duration.ofNanos(Math.max(burstNanos, TimeUnit.SECONDS.toNanos(1))))
+                    .build();
+        }
+
+        long acquire(String key, long now) {
+            AtomicLong fullAt = buckets.get(key, k -> new AtomicLong());
+            while (true) {
+                long current = fullAt.get();
+                long next = Math.max(current, now) + intervalNanos;
+                long wait = next - burstNanos - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
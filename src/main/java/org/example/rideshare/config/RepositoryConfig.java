@@ -0,0 +1,79 @@
+package org.example.rideshare.config;
+
+import org.example.rideshare.repository.DriverLocationRepository;
+import org.example.rideshare.repository.PlaceRepository;
+import org.example.rideshare.repository.RideEventRepository;
+import org.example.rideshare.repository.RideRepository;
+import org.example.rideshare.repository.UserRepository;
+import org.example.rideshare.repository.memory.InMemoryDriverLocationRepository;
+import org.example.rideshare.repository.memory.InMemoryPlaceRepository;
+import org.example.rideshare.repository.memory.InMemoryRideEventRepository;
+import org.example.rideshare.repository.memory.InMemoryRideRepository;
+import org.example.rideshare.repository.memory.InMemoryUserRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+/**
+ * Selects the repository implementations.
+ *
+ * By default repositories are MongoDB backed. The {@code inmemory} profile swaps in the map-based
+ * stand-ins so the API can be load tested without a database; data is lost on restart. The
+ * {@code reactive} profile adds the reactive Mongo repositories its endpoints use; it has no
+ * in-memory variant.
+ */
+@Configuration
+public class RepositoryConfig {
+
+    @Configuration
+    @Profile("!inmemory")
+    @EnableMongoRepositories(basePackages = "org.example.rideshare.repository")
+    static class MongoRepositories {
+    }
+
+    // Reactive repositories live outside the repository package: the blocking scan rejects reactive interfaces
+    @Configuration
+    @Profile("reactive")
+    @EnableReactiveMongoRepositories(basePackages = "org.example.rideshare.reactive.repository")
+    static class ReactiveMongoRepositories {
+    }
+
+    // Declared as the repository interfaces so RepositoryMetricsPostProcessor can wrap them in JDK proxies
+    @Configuration
+    @Profile("inmemory")
+    static class InMemoryRepositories {
+
+        @Bean
+        @Primary
+        public RideRepository rideRepository() {
+            return new InMemoryRideRepository();
+        }
+
+        @Bean
+        @Primary
+        public UserRepository userRepository() {
+            return new InMemoryUserRepository();
+        }
+
+        @Bean
+        @Primary
+        public RideEventRepository rideEventRepository() {
+            return new InMemoryRideEventRepository();
+        }
+
+        @Bean
+        @Primary
+        public DriverLocationRepository driverLocationRepository() {
+            return new InMemoryDriverLocationRepository();
+        }
+
+        @Bean
+        @Primary
+        public PlaceRepository placeRepository() {
+            return new InMemoryPlaceRepository();
+        }
+    }
+}
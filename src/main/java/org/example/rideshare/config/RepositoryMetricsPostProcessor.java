@@ -0,0 +1,74 @@
+package org.example.rideshare.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.example.rideshare.repository.RideRepository;
+import org.example.rideshare.repository.UserRepository;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Times every call on the ride and user repositories as {@code repository.calls}, tagged with
+ * repository, method and outcome. This works the same for the Mongo and in-memory
+ * implementations; the driver-level {@code mongodb.driver.commands} timer shows the Mongo
+ * command each call turned into.
+ *
+ * Timers are registered once per method and outcome and reused, so a call only pays for the
+ * map lookup and the recording.
+ */
+@Component
+public class RepositoryMetricsPostProcessor implements BeanPostProcessor {
+
+    private final ObjectProvider<MeterRegistry> registry;
+
+    private record TimerKey(Method method, String outcome) {
+    }
+
+    public RepositoryMetricsPostProcessor(ObjectProvider<MeterRegistry> registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        String repository;
+        if (bean instanceof RideRepository) {
+            repository = "RideRepository";
+        } else if (bean instanceof UserRepository) {
+            repository = "UserRepository";
+        } else {
+            return bean;
+        }
+
+        Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+        ProxyFactory proxyFactory = new ProxyFactory(bean);
+        proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+            if (invocation.getMethod().getDeclaringClass() == Object.class) {
+                return invocation.proceed();
+            }
+            Timer.Sample sample = Timer.start();
+            String outcome = "success";
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                outcome = e.getClass().getSimpleName();
+                throw e;
+            } finally {
+                sample.stop(timers.computeIfAbsent(new TimerKey(invocation.getMethod(), outcome),
+                        key -> Timer.builder("repository.calls")
+                                .tag("repository", repository)
+                                .tag("method", key.method().getName())
+                                .tag("outcome", key.outcome())
+                                .publishPercentileHistogram()
+                                .register(registry.getObject())));
+            }
+        });
+        return proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.rideshare.config;
+
+import org.example.rideshare.dto.RideEventPage;
+import org.example.rideshare.model.RideEvent;
+import org.example.rideshare.service.RideEventLog;
+import org.jspecify.annotations.Nullable;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Tails the ride event log over HTTP: {@code GET /actuator/rideevents?after=<sequence>&limit=<n>}.
+ *
+ * Not exposed by default; add {@code rideevents} to management.endpoints.web.exposure.include
+ * for downstream consumers. Like every actuator path other than health it
+ * requires an authenticated caller.
+ */
+@Component
+@Endpoint(id = "rideevents")
+public class RideEventsEndpoint {
+
+    static final int DEFAULT_LIMIT = 100;
+    static final int MAX_LIMIT = 1000;
+
+    private final RideEventLog rideEventLog;
+
+    public RideEventsEndpoint(RideEventLog rideEventLog) {
+        this.rideEventLog = rideEventLog;
+    }
+
+    @ReadOperation
+    public RideEventPage events(@Nullable Long after, @Nullable Integer limit) {
+        long from = after != null ? Math.max(0, after) : 0;
+        int size = limit != null ? Math.min(Math.max(1, limit), MAX_LIMIT) : DEFAULT_LIMIT;
+        List<RideEvent> events = rideEventLog.readAfter(from, size);
+        long next = events.isEmpty() ? from : events.get(events.size() - 1).getSequence();
+        return new RideEventPage(events, next);
+    }
+}
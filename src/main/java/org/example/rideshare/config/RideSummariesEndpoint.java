@@ -0,0 +1,26 @@
+package org.example.rideshare.config;
+
+import org.example.rideshare.service.RideSummaryRebuilder;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Triggers a full ride summary rebuild: {@code POST /actuator/ridesummaries}. Not exposed by
+ * default; add {@code ridesummaries} to management.endpoints.web.exposure.include to use it.
+ */
+@Component
+@Endpoint(id = "ridesummaries")
+public class RideSummariesEndpoint {
+
+    private final RideSummaryRebuilder rebuilder;
+
+    public RideSummariesEndpoint(RideSummaryRebuilder rebuilder) {
+        this.rebuilder = rebuilder;
+    }
+
+    @WriteOperation
+    public RideSummaryRebuilder.Result rebuild() {
+        return rebuilder.rebuild();
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.rideshare.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of tokens whose signature has already been verified.
+ *
+ * Each entry expires exactly when its token does, so a cached hit never outlives the
+ * token's own {@code exp} claim. Only successfully verified tokens are stored.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private final Cache<String, VerifiedToken> cache;
+
+    public VerifiedTokenCache(@Value("${jwt.cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        long remainingMillis = verified.expiresAtMillis() - System.currentTimeMillis();
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified,
+                                                  long currentTime, long currentDuration) {
+                        return expireAfterCreate(token, verified, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cached verification result, running {@code verifier} on a miss.
+     * Exceptions thrown by the verifier propagate and nothing is cached.
+     *
+     * The verifier runs inside the cache's compute, so it must stay CPU-only (signature check,
+     * no I/O) to keep virtual threads from pinning while it holds the bin lock.
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        return cache.get(token, verifier);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "jwt.verified-tokens");
+    }
+
+    public record VerifiedToken(String username, List<GrantedAuthority> authorities, long expiresAtMillis) {
+
+        /**
+         * Builds the cache entry from already verified claims; shared by the servlet and reactive filters.
+         */
+        static VerifiedToken of(Claims claims) {
+            String role = claims.get("role", String.class);
+            if (claims.getSubject() == null || role == null || claims.getExpiration() == null) {
+                throw new IllegalArgumentException("Token is missing subject, role or expiry");
+            }
+            return new VerifiedToken(
+                    claims.getSubject(),
+                    List.of(new SimpleGrantedAuthority(role)),
+                    claims.getExpiration().getTime());
+        }
+    }
+}
@@ -5,15 +5,16 @@ import org.example.rideshare.dto.AuthRequest;
 import org.example.rideshare.dto.RegisterRequest;
 import org.example.rideshare.dto.AuthResponse;
 import org.example.rideshare.exception.BadRequestException;
-import org.example.rideshare.exception.NotFoundException;
 import org.example.rideshare.model.User;
 import org.example.rideshare.repository.UserRepository;
+import org.example.rideshare.service.PasswordVerifier;
+import org.example.rideshare.service.PasswordVerifier.Verification;
+import org.example.rideshare.service.UserIdentityCache;
 import org.example.rideshare.util.JwtUtil;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
@@ -21,19 +22,20 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api/auth")
+@Profile("!reactive")
 public class AuthController {
 
     @Autowired
     private UserRepository userRepo;
 
     @Autowired
-    private PasswordEncoder encoder;
+    private PasswordVerifier passwordVerifier;
 
     @Autowired
-    private AuthenticationManager authManager;
+    private JwtUtil jwtUtil;
 
     @Autowired
-    private JwtUtil jwtUtil;
+    private UserIdentityCache userIdentityCache;
 
     @PostMapping({"/register", "/register/"})
     public ResponseEntity<Map<String, String>> register(@Valid @RequestBody RegisterRequest req) {
@@ -43,11 +45,12 @@ public class AuthController {
 
         User user = User.builder()
                 .username(req.getUsername())
-                .password(encoder.encode(req.getPassword()))
+                .password(PasswordVerifier.await(passwordVerifier.encode(req.getPassword())))
                 .role(req.getRole())
                 .build();
 
-        userRepo.save(user);
+        User saved = userRepo.save(user);
+        userIdentityCache.put(saved);
 
         Map<String, String> response = new HashMap<>();
         response.put("message", "User registered successfully");
@@ -57,14 +60,20 @@ public class AuthController {
 
     @PostMapping({"/login", "/login/"})
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest auth) {
-        authManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        auth.getUsername(), auth.getPassword()
-                )
-        );
+        // One lookup; the password check runs on the hashing pool while this thread waits
+        User user = userRepo.findByUsername(auth.getUsername()).orElse(null);
+        Verification verification = PasswordVerifier.await(passwordVerifier
+                .verify(auth.getPassword(), user != null ? user.getPassword() : null));
+        if (user == null || !verification.matches()) {
+            throw new BadCredentialsException("Invalid username or password");
+        }
 
-        var user = userRepo.findByUsername(auth.getUsername())
-                .orElseThrow(() -> new NotFoundException("User not found"));
+        // Only the hash, and only if it is still the one checked: a concurrent change wins, and the
+        // upgrade is retried on a later login
+        if (verification.upgradedHash() != null) {
+            userRepo.updatePasswordIfUnchanged(user.getId(), user.getPassword(), verification.upgradedHash());
+        }
+        userIdentityCache.put(user);
 
         String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
 
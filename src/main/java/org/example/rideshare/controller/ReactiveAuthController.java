@@ -0,0 +1,93 @@
+package org.example.rideshare.controller;
+
+import jakarta.validation.Valid;
+import org.example.rideshare.dto.AuthRequest;
+import org.example.rideshare.dto.AuthResponse;
+import org.example.rideshare.dto.RegisterRequest;
+import org.example.rideshare.exception.BadRequestException;
+import org.example.rideshare.model.User;
+import org.example.rideshare.reactive.repository.ReactiveUserRepository;
+import org.example.rideshare.service.PasswordVerifier;
+import org.example.rideshare.service.UserIdentityCache;
+import org.example.rideshare.util.JwtUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * {@link AuthController} for the {@code reactive} profile. Password hashing is CPU-heavy, so it
+ * runs on the {@link PasswordVerifier} pool rather than the event loop.
+ */
+@RestController
+@RequestMapping("/api/auth")
+@Profile("reactive")
+public class ReactiveAuthController {
+
+    @Autowired
+    private ReactiveUserRepository userRepo;
+
+    @Autowired
+    private PasswordVerifier passwordVerifier;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @PostMapping({"/register", "/register/"})
+    public Mono<ResponseEntity<Map<String, String>>> register(@Valid @RequestBody RegisterRequest req) {
+        Mono<User> newUser = Mono.fromFuture(() -> passwordVerifier.encode(req.getPassword()))
+                .map(password -> User.builder()
+                        .username(req.getUsername())
+                        .password(password)
+                        .role(req.getRole())
+                        .build())
+                .flatMap(userRepo::save);
+
+        return userRepo.findByUsername(req.getUsername())
+                .flatMap(existing -> Mono.<User>error(new BadRequestException("Username already exists")))
+                .switchIfEmpty(newUser)
+                .map(saved -> {
+                    userIdentityCache.put(saved);
+
+                    Map<String, String> response = new HashMap<>();
+                    response.put("message", "User registered successfully");
+                    response.put("username", saved.getUsername());
+                    return ResponseEntity.ok(response);
+                });
+    }
+
+    @PostMapping({"/login", "/login/"})
+    public Mono<ResponseEntity<AuthResponse>> login(@Valid @RequestBody AuthRequest auth) {
+        return userRepo.findByUsername(auth.getUsername())
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(user -> Mono.fromFuture(() -> passwordVerifier.verify(
+                                auth.getPassword(), user.map(User::getPassword).orElse(null)))
+                        .flatMap(verification -> {
+                            if (user.isEmpty() || !verification.matches()) {
+                                return Mono.<User>error(new BadCredentialsException("Invalid username or password"));
+                            }
+                            if (verification.upgradedHash() == null) {
+                                return Mono.just(user.get());
+                            }
+                            // Same conditional, hash-only write as the servlet controller
+                            return userRepo.updatePasswordIfUnchanged(user.get().getId(),
+                                            user.get().getPassword(), verification.upgradedHash())
+                                    .thenReturn(user.get());
+                        }))
+                .map(user -> {
+                    userIdentityCache.put(user);
+                    String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
+                    return ResponseEntity.ok(new AuthResponse(token));
+                });
+    }
+}
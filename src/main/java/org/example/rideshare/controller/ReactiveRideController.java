@@ -0,0 +1,272 @@
+package org.example.rideshare.controller;
+
+import jakarta.validation.Valid;
+import org.example.rideshare.dto.BatchRideResponse;
+import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.DriverAvailabilityRequest;
+import org.example.rideshare.dto.DriverLocationRequest;
+import org.example.rideshare.dto.DriverLocationResponse;
+import org.example.rideshare.dto.RidePageResponse;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.dto.RideSummaryResponse;
+import org.example.rideshare.exception.BadRequestException;
+import org.example.rideshare.controller.RideResponseWriter.Format;
+import org.example.rideshare.service.ReactiveRideService;
+import org.example.rideshare.service.RideFeed;
+import org.example.rideshare.service.RideVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@link RideController} for the {@code reactive} profile: same paths, parameters, role rules
+ * and response bodies, served without blocking a thread per request.
+ */
+@RestController
+@RequestMapping("/api/v1")
+@Profile("reactive")
+public class ReactiveRideController {
+
+    private static final int DEFAULT_NEARBY_LIMIT = 20;
+
+    @Autowired
+    private ReactiveRideService rideService;
+
+    @Autowired
+    private RideResponseWriter rideResponseWriter;
+
+    @Autowired
+    private RideVersions rideVersions;
+
+    @PostMapping("/rides")
+    @PreAuthorize("hasRole('USER')")
+    public Mono<ResponseEntity<RideResponse>> createRide(
+            @Valid @RequestBody CreateRideRequest request,
+            Authentication authentication) {
+        return rideService.createRide(request, authentication.getName())
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/rides/batch")
+    @PreAuthorize("hasRole('USER')")
+    public Mono<ResponseEntity<BatchRideResponse>> createRides(
+            @RequestBody List<CreateRideRequest> requests,
+            Authentication authentication) {
+        return rideService.createRides(requests, authentication.getName())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/driver/rides/requests")
+    @PreAuthorize("hasRole('DRIVER')")
+    public Mono<ResponseEntity<?>> getRequestedRides(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Format format = rideResponseWriter.format(fields, accept);
+        if (lat != null || lng != null) {
+            if (lat == null || lng == null) {
+                return Mono.error(new BadRequestException("Both lat and lng are required for a nearby search"));
+            }
+            return rideService.getNearbyRequestedRides(
+                            lat, lng, radiusKm, limit != null ? limit : DEFAULT_NEARBY_LIMIT)
+                    .map(rides -> rides(rides, format, null));
+        }
+        if (cursor != null || limit != null) {
+            return rideService.getRequestedRidesPage(cursor, limit)
+                    .map(page -> page(page, format, null));
+        }
+        return rideService.getRequestedRidesVersion()
+                .map(version -> etag(version, format))
+                .<ResponseEntity<?>>flatMap(etag -> {
+                    if (RideVersions.matches(ifNoneMatch, etag)) {
+                        return Mono.just(notModified(etag));
+                    }
+                    if (!format.isDefault()) {
+                        return rideService.getRequestedRides()
+                                .map(rides -> rides(rides, format, etag));
+                    }
+                    return rideService.getRequestedRidesJson()
+                            .map(json -> ok(etag)
+                                    .contentType(MediaType.APPLICATION_JSON)
+                                    .body(json));
+                });
+    }
+
+    @GetMapping(value = "/driver/rides/requests/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('DRIVER')")
+    public Flux<RideResponse> streamRequestedRides() {
+        return rideService.streamRequestedRides();
+    }
+
+    @GetMapping(value = "/driver/rides/requests/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('DRIVER')")
+    public Flux<ServerSentEvent<RideFeed.Event>> rideRequestFeed() {
+        return rideService.rideRequestFeed()
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.type().name())
+                        .build());
+    }
+
+    @PostMapping("/driver/rides/{rideId}/accept")
+    @PreAuthorize("hasRole('DRIVER')")
+    public Mono<ResponseEntity<RideResponse>> acceptRide(
+            @PathVariable String rideId,
+            Authentication authentication) {
+        return rideService.acceptRide(rideId, authentication.getName())
+                .map(ResponseEntity::ok);
+    }
+
+    @PutMapping("/driver/availability")
+    @PreAuthorize("hasRole('DRIVER')")
+    public Mono<ResponseEntity<Void>> makeAvailable(
+            @Valid @RequestBody DriverAvailabilityRequest request,
+            Authentication authentication) {
+        return rideService.makeAvailable(authentication.getName(), request.getLat(), request.getLng())
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @DeleteMapping("/driver/availability")
+    @PreAuthorize("hasRole('DRIVER')")
+    public Mono<ResponseEntity<Void>> makeUnavailable(Authentication authentication) {
+        return rideService.makeUnavailable(authentication.getName())
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/driver/assignment")
+    @PreAuthorize("hasRole('DRIVER')")
+    public Mono<ResponseEntity<RideResponse>> getAssignment(Authentication authentication) {
+        return rideService.getAssignment(authentication.getName())
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.noContent().build());
+    }
+
+    @PutMapping("/driver/location")
+    @PreAuthorize("hasRole('DRIVER')")
+    public Mono<ResponseEntity<Void>> updateLocation(
+            @Valid @RequestBody DriverLocationRequest request,
+            Authentication authentication) {
+        return rideService.updateDriverLocation(authentication.getName(), request.getLat(), request.getLng())
+                .thenReturn(ResponseEntity.noContent().build());
+    }
+
+    @GetMapping("/drivers/nearby")
+    @PreAuthorize("hasRole('USER') or hasRole('DRIVER')")
+    public Mono<ResponseEntity<List<DriverLocationResponse>>> getNearbyDrivers(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(required = false) Integer limit) {
+        return rideService.getNearbyDrivers(lat, lng, radiusKm, limit != null ? limit : DEFAULT_NEARBY_LIMIT)
+                .map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/rides/{rideId}/complete")
+    @PreAuthorize("hasRole('USER') or hasRole('DRIVER')")
+    public Mono<ResponseEntity<RideResponse>> completeRide(
+            @PathVariable String rideId,
+            Authentication authentication) {
+        return rideService.completeRide(rideId, authentication.getName())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/user/rides")
+    @PreAuthorize("hasRole('USER')")
+    public Mono<ResponseEntity<?>> getUserRides(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
+        String username = authentication.getName();
+        Format format = rideResponseWriter.format(fields, accept);
+        return rideService.getUserRidesVersion(username)
+                .map(version -> etag(version, format))
+                .<ResponseEntity<?>>flatMap(etag -> {
+                    if (RideVersions.matches(ifNoneMatch, etag)) {
+                        return Mono.just(notModified(etag));
+                    }
+                    if (cursor != null || limit != null) {
+                        return rideService.getUserRidesPage(username, cursor, limit)
+                                .map(page -> page(page, format, etag));
+                    }
+                    return rideService.getUserRides(username)
+                            .collectList()
+                            .map(rides -> rides(rides, format, etag));
+                });
+    }
+
+    @GetMapping("/user/rides/summary")
+    @PreAuthorize("hasRole('USER')")
+    public Mono<ResponseEntity<RideSummaryResponse>> getUserSummary(Authentication authentication) {
+        return rideService.getUserSummary(authentication.getName())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/driver/rides/summary")
+    @PreAuthorize("hasRole('DRIVER')")
+    public Mono<ResponseEntity<RideSummaryResponse>> getDriverSummary(Authentication authentication) {
+        return rideService.getDriverSummary(authentication.getName())
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping(value = "/user/rides/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public Flux<RideResponse> streamUserRides(Authentication authentication) {
+        return rideService.streamUserRides(authentication.getName());
+    }
+
+    private ResponseEntity<?> rides(List<RideResponse> rides, Format format, String etag) {
+        if (format.isDefault()) {
+            return ok(etag).body(rides);
+        }
+        return ok(etag)
+                .contentType(format.encoding().mediaType())
+                .body(rideResponseWriter.write(rides, format));
+    }
+
+    private ResponseEntity<?> page(RidePageResponse page, Format format, String etag) {
+        if (format.isDefault()) {
+            return ok(etag).body(page);
+        }
+        return ok(etag)
+                .contentType(format.encoding().mediaType())
+                .body(rideResponseWriter.write(page, format));
+    }
+
+    // Same as RideController: JSON or CBOR, so shared caches must key on Accept
+    private static ResponseEntity.BodyBuilder ok(String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        return etag != null ? response.eTag(etag).cacheControl(RideVersions.CACHE_CONTROL) : response;
+    }
+
+    private String etag(long version, Format format) {
+        return rideVersions.etag(version, format.encoding().name().toLowerCase(Locale.ROOT));
+    }
+
+    private ResponseEntity<?> notModified(String etag) {
+        rideVersions.notModified();
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(RideVersions.CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+}
@@ -1,24 +1,69 @@
 package org.example.rideshare.controller;
 
 import jakarta.validation.Valid;
+import org.example.rideshare.dto.BatchRideResponse;
 import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.DriverAvailabilityRequest;
+import org.example.rideshare.dto.DriverLocationRequest;
+import org.example.rideshare.dto.DriverLocationResponse;
+import org.example.rideshare.dto.RidePageResponse;
 import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.dto.RideSummaryResponse;
+import org.example.rideshare.exception.BadRequestException;
+import org.example.rideshare.controller.RideResponseWriter.Format;
+import org.example.rideshare.service.DispatchEngine;
+import org.example.rideshare.service.RideFeed;
 import org.example.rideshare.service.RideService;
+import org.example.rideshare.service.RideVersions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/api/v1")
+@Profile("!reactive")
 public class RideController {
 
+    private static final int DEFAULT_NEARBY_LIMIT = 20;
+
     @Autowired
     private RideService rideService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private RideFeed rideFeed;
+
+    @Autowired
+    private DispatchEngine dispatchEngine;
+
+    @Autowired
+    private RideResponseWriter rideResponseWriter;
+
+    @Autowired
+    private RideVersions rideVersions;
+
+    @Value("${rides.feed.timeout:30m}")
+    private Duration feedTimeout;
+
     @PostMapping("/rides")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<RideResponse> createRide(
@@ -29,11 +74,90 @@ public class RideController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/rides/batch")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BatchRideResponse> createRides(
+            @RequestBody List<CreateRideRequest> requests,
+            Authentication authentication) {
+        String username = authentication.getName();
+        BatchRideResponse response = rideService.createRides(requests, username);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/driver/rides/requests")
     @PreAuthorize("hasRole('DRIVER')")
-    public ResponseEntity<List<RideResponse>> getRequestedRides() {
-        List<RideResponse> rides = rideService.getRequestedRides();
-        return ResponseEntity.ok(rides);
+    public ResponseEntity<?> getRequestedRides(
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Format format = rideResponseWriter.format(fields, accept);
+        if (lat != null || lng != null) {
+            if (lat == null || lng == null) {
+                throw new BadRequestException("Both lat and lng are required for a nearby search");
+            }
+            List<RideResponse> rides = rideService.getNearbyRequestedRides(
+                    lat, lng, radiusKm, limit != null ? limit : DEFAULT_NEARBY_LIMIT);
+            return rides(rides, format, null);
+        }
+        if (cursor != null || limit != null) {
+            RidePageResponse page = rideService.getRequestedRidesPage(cursor, limit);
+            return page(page, format, null);
+        }
+        // The full list is the shared snapshot, whose version is its ETag
+        String etag = etag(rideService.getRequestedRidesVersion(), format);
+        if (RideVersions.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (!format.isDefault()) {
+            return rides(rideService.getRequestedRides(), format, etag);
+        }
+        // Pre-serialized and shared by every concurrent caller
+        return ok(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(rideService.getRequestedRidesJson());
+    }
+
+    @GetMapping(value = "/driver/rides/requests/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('DRIVER')")
+    public ResponseEntity<StreamingResponseBody> streamRequestedRides() {
+        Stream<RideResponse> rides = rideService.streamRequestedRides();
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(writeNdjson(rides));
+    }
+
+    /**
+     * New and taken ride requests as Server-Sent Events (see {@link RideFeed}). Clients subscribe,
+     * load the list once, then apply events by ride id; on RESYNC they load the list again.
+     */
+    @GetMapping(value = "/driver/rides/requests/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('DRIVER')")
+    public SseEmitter rideRequestFeed() throws IOException {
+        SseEmitter emitter = new SseEmitter(feedTimeout.toMillis());
+        RideFeed.Subscriber subscriber = rideFeed.subscribe(new RideFeed.Delivery() {
+            @Override
+            public void deliver(RideFeed.Event event) throws IOException {
+                emitter.send(SseEmitter.event()
+                        .name(event.type().name())
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void disconnected() {
+                emitter.complete();
+            }
+        }, rideFeed.blockingDeliveryExecutor());
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+        // Commits the response so clients see the subscription open before the first ride
+        emitter.send(SseEmitter.event().comment("subscribed"));
+        return emitter;
     }
 
     @PostMapping("/driver/rides/{rideId}/accept")
@@ -46,6 +170,59 @@ public class RideController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Joins (or renews) the dispatch pool; the engine may then assign an open ride nearby.
+     */
+    @PutMapping("/driver/availability")
+    @PreAuthorize("hasRole('DRIVER')")
+    public ResponseEntity<Void> makeAvailable(
+            @Valid @RequestBody DriverAvailabilityRequest request,
+            Authentication authentication) {
+        dispatchEngine.makeAvailable(authentication.getName(), request.getLat(), request.getLng());
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/driver/availability")
+    @PreAuthorize("hasRole('DRIVER')")
+    public ResponseEntity<Void> makeUnavailable(Authentication authentication) {
+        dispatchEngine.makeUnavailable(authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    // 204 until the dispatch engine has assigned a ride
+    @GetMapping("/driver/assignment")
+    @PreAuthorize("hasRole('DRIVER')")
+    public ResponseEntity<RideResponse> getAssignment(Authentication authentication) {
+        return dispatchEngine.assignmentFor(authentication.getName())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    /**
+     * Latest GPS position, sent every few seconds while the driver app is open. Kept in memory
+     * and persisted in coalesced batches (see {@link org.example.rideshare.service.DriverLocationStore}).
+     */
+    @PutMapping("/driver/location")
+    @PreAuthorize("hasRole('DRIVER')")
+    public ResponseEntity<Void> updateLocation(
+            @Valid @RequestBody DriverLocationRequest request,
+            Authentication authentication) {
+        rideService.updateDriverLocation(authentication.getName(), request.getLat(), request.getLng());
+        return ResponseEntity.noContent().build();
+    }
+
+    @GetMapping("/drivers/nearby")
+    @PreAuthorize("hasRole('USER') or hasRole('DRIVER')")
+    public ResponseEntity<List<DriverLocationResponse>> getNearbyDrivers(
+            @RequestParam double lat,
+            @RequestParam double lng,
+            @RequestParam(defaultValue = "5") double radiusKm,
+            @RequestParam(required = false) Integer limit) {
+        List<DriverLocationResponse> drivers = rideService.getNearbyDrivers(
+                lat, lng, radiusKm, limit != null ? limit : DEFAULT_NEARBY_LIMIT);
+        return ResponseEntity.ok(drivers);
+    }
+
     @PostMapping("/rides/{rideId}/complete")
     @PreAuthorize("hasRole('USER') or hasRole('DRIVER')")
     public ResponseEntity<RideResponse> completeRide(
@@ -58,9 +235,105 @@ public class RideController {
 
     @GetMapping("/user/rides")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<RideResponse>> getUserRides(Authentication authentication) {
+    public ResponseEntity<?> getUserRides(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            Authentication authentication) {
         String username = authentication.getName();
+        Format format = rideResponseWriter.format(fields, accept);
+        String etag = etag(rideService.getUserRidesVersion(username), format);
+        if (RideVersions.matches(ifNoneMatch, etag)) {
+            return notModified(etag);
+        }
+        if (cursor != null || limit != null) {
+            RidePageResponse page = rideService.getUserRidesPage(username, cursor, limit);
+            return page(page, format, etag);
+        }
         List<RideResponse> rides = rideService.getUserRides(username);
-        return ResponseEntity.ok(rides);
+        return rides(rides, format, etag);
+    }
+
+    // O(1): served from the in-memory summary index, not by scanning the user's rides
+    @GetMapping("/user/rides/summary")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<RideSummaryResponse> getUserSummary(Authentication authentication) {
+        RideSummaryResponse response = rideService.getUserSummary(authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/driver/rides/summary")
+    @PreAuthorize("hasRole('DRIVER')")
+    public ResponseEntity<RideSummaryResponse> getDriverSummary(Authentication authentication) {
+        RideSummaryResponse response = rideService.getDriverSummary(authentication.getName());
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping(value = "/user/rides/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> streamUserRides(Authentication authentication) {
+        Stream<RideResponse> rides = rideService.streamUserRides(authentication.getName());
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(writeNdjson(rides));
+    }
+
+    private ResponseEntity<?> rides(List<RideResponse> rides, Format format, String etag) {
+        if (format.isDefault()) {
+            return ok(etag).body(rides);
+        }
+        return ok(etag)
+                .contentType(format.encoding().mediaType())
+                .body(rideResponseWriter.write(rides, format));
+    }
+
+    private ResponseEntity<?> page(RidePageResponse page, Format format, String etag) {
+        if (format.isDefault()) {
+            return ok(etag).body(page);
+        }
+        return ok(etag)
+                .contentType(format.encoding().mediaType())
+                .body(rideResponseWriter.write(page, format));
+    }
+
+    // The list endpoints answer in JSON or CBOR, so shared caches must key on Accept
+    private static ResponseEntity.BodyBuilder ok(String etag) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().varyBy(HttpHeaders.ACCEPT);
+        return etag != null ? response.eTag(etag).cacheControl(RideVersions.CACHE_CONTROL) : response;
+    }
+
+    // JSON and CBOR bodies differ, so each encoding has its own tag
+    private String etag(long version, Format format) {
+        return rideVersions.etag(version, format.encoding().name().toLowerCase(Locale.ROOT));
+    }
+
+    private ResponseEntity<?> notModified(String etag) {
+        rideVersions.notModified();
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(RideVersions.CACHE_CONTROL)
+                .varyBy(HttpHeaders.ACCEPT)
+                .build();
+    }
+
+    // One JSON document per line, written as the Mongo cursor yields rides
+    private StreamingResponseBody writeNdjson(Stream<RideResponse> rides) {
+        return out -> {
+            try (rides) {
+                rides.forEach(ride -> {
+                    try {
+                        out.write(objectMapper.writeValueAsBytes(ride));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            out.flush();
+        };
     }
 }
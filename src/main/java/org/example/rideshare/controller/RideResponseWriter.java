@@ -0,0 +1,238 @@
+package org.example.rideshare.controller;
+
+import org.example.rideshare.dto.RidePageResponse;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.exception.BadRequestException;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.BeanProperty;
+import tools.jackson.databind.JavaType;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.introspect.AnnotatedMember;
+import tools.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
+import tools.jackson.databind.jsonFormatVisitors.JsonObjectFormatVisitor;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Sparse fieldsets ({@code ?fields=id,pickupLocation,status}) and CBOR ({@code Accept:
+ * application/cbor}) for the ride list endpoints of both controllers.
+ *
+ * A list or page is written with a single generator into a pooled output buffer, so a response
+ * costs one copy of its bytes; the generator's own buffers are recycled by Jackson. Values are
+ * written by the mapper, so a projected field looks exactly like the same field in a full
+ * response. Requests for all fields as JSON keep the endpoints' regular serialization.
+ */
+@Component
+public class RideResponseWriter {
+
+    public enum Encoding {
+        JSON(MediaType.APPLICATION_JSON),
+        CBOR(MediaType.APPLICATION_CBOR);
+
+        private final MediaType mediaType;
+
+        Encoding(MediaType mediaType) {
+            this.mediaType = mediaType;
+        }
+
+        public MediaType mediaType() {
+            return mediaType;
+        }
+    }
+
+    /**
+     * A property of RideResponse as the mapper serializes it; {@code member} reads its value.
+     */
+    public record Field(String property, AnnotatedMember member) {
+    }
+
+    /**
+     * {@code fields} is null for every field, otherwise in the order of a full response.
+     */
+    public record Format(List<Field> fields, Encoding encoding) {
+
+        public boolean isDefault() {
+            return fields == null && encoding == Encoding.JSON;
+        }
+    }
+
+    private static final int POOLED_BUFFERS = 32;
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+    // Buffers grown past this by an unusually large response are dropped rather than kept
+    private static final int MAX_POOLED_BUFFER_SIZE = 256 * 1024;
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper cborMapper = CBORMapper.builder().build();
+    private final BlockingQueue<Buffer> buffers = new ArrayBlockingQueue<>(POOLED_BUFFERS);
+    private final Map<String, Field> fieldsByName;
+    private final String fieldNames;
+
+    public RideResponseWriter(ObjectMapper objectMapper) {
+        this.jsonMapper = objectMapper;
+        this.fieldsByName = serializedFields(objectMapper);
+        this.fieldNames = String.join(", ", fieldsByName.keySet());
+    }
+
+    /**
+     * The format for a request's {@code fields} parameter and {@code Accept} header. CBOR is
+     * chosen only when the client prefers it to JSON.
+     */
+    public Format format(String fields, String accept) {
+        return new Format(parseFields(fields), negotiate(accept));
+    }
+
+    public byte[] write(List<RideResponse> rides, Format format) {
+        Buffer buffer = acquire();
+        try {
+            try (JsonGenerator generator = mapper(format).createGenerator(buffer)) {
+                writeRides(generator, rides, format.fields());
+            }
+            return buffer.toByteArray();
+        } finally {
+            release(buffer);
+        }
+    }
+
+    public byte[] write(RidePageResponse page, Format format) {
+        Buffer buffer = acquire();
+        try {
+            try (JsonGenerator generator = mapper(format).createGenerator(buffer)) {
+                generator.writeStartObject();
+                generator.writeName("items");
+                writeRides(generator, page.getItems(), format.fields());
+                generator.writeName("nextCursor");
+                generator.writePOJO(page.getNextCursor());
+                generator.writeEndObject();
+            }
+            return buffer.toByteArray();
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private void writeRides(JsonGenerator generator, List<RideResponse> rides, List<Field> fields) {
+        generator.writeStartArray();
+        for (RideResponse ride : rides) {
+            if (fields == null) {
+                generator.writePOJO(ride);
+                continue;
+            }
+            generator.writeStartObject();
+            for (Field field : fields) {
+                generator.writeName(field.property());
+                generator.writePOJO(field.member().getValue(ride));
+            }
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+    }
+
+    private ObjectMapper mapper(Format format) {
+        return format.encoding() == Encoding.CBOR ? cborMapper : jsonMapper;
+    }
+
+    private List<Field> parseFields(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return null;
+        }
+        Set<String> requested = new HashSet<>();
+        for (String name : spec.split(",")) {
+            String property = name.trim();
+            if (property.isEmpty()) {
+                continue;
+            }
+            if (!fieldsByName.containsKey(property)) {
+                throw new BadRequestException("Unknown field '" + property + "'; fields are " + fieldNames);
+            }
+            requested.add(property);
+        }
+        List<Field> fields = fieldsByName.values().stream()
+                .filter(field -> requested.contains(field.property()))
+                .toList();
+        return fields.isEmpty() ? null : fields;
+    }
+
+    /**
+     * RideResponse's properties as the mapper writes them, in its order, so the fields a request
+     * can project always match a full response (ignored and renamed properties included).
+     */
+    private static Map<String, Field> serializedFields(ObjectMapper mapper) {
+        Map<String, Field> fields = new LinkedHashMap<>();
+        mapper.acceptJsonFormatVisitor(RideResponse.class, new JsonFormatVisitorWrapper.Base() {
+            @Override
+            public JsonObjectFormatVisitor expectObjectFormat(JavaType type) {
+                return new JsonObjectFormatVisitor.Base() {
+                    @Override
+                    public void property(BeanProperty property) {
+                        fields.put(property.getName(), new Field(property.getName(), property.getMember()));
+                    }
+
+                    @Override
+                    public void optionalProperty(BeanProperty property) {
+                        property(property);
+                    }
+                };
+            }
+        });
+        if (fields.isEmpty()) {
+            throw new IllegalStateException("RideResponse has no serialized properties");
+        }
+        return fields;
+    }
+
+    // Ties, wildcards and unparseable headers get JSON, as before CBOR was offered
+    private static Encoding negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return Encoding.JSON;
+        }
+        double json = 0;
+        double cbor = 0;
+        try {
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.includes(MediaType.APPLICATION_JSON)) {
+                    json = Math.max(json, type.getQualityValue());
+                }
+                if (type.includes(MediaType.APPLICATION_CBOR)) {
+                    cbor = Math.max(cbor, type.getQualityValue());
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            return Encoding.JSON;
+        }
+        return cbor > json ? Encoding.CBOR : Encoding.JSON;
+    }
+
+    private Buffer acquire() {
+        Buffer buffer = buffers.poll();
+        return buffer != null ? buffer : new Buffer();
+    }
+
+    private void release(Buffer buffer) {
+        if (buffer.capacity() <= MAX_POOLED_BUFFER_SIZE) {
+            buffer.reset();
+            buffers.offer(buffer);
+        }
+    }
+
+    private static final class Buffer extends ByteArrayOutputStream {
+
+        Buffer() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+    }
+}
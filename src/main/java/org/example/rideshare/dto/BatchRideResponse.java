@@ -0,0 +1,18 @@
+package org.example.rideshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRideResponse {
+    private int created;
+    private int rejected;
+    private int failed;
+    // One entry per submitted item, in submission order
+    private List<BatchRideResult> results;
+}
@@ -0,0 +1,25 @@
+package org.example.rideshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRideResult {
+
+    public enum Status {
+        CREATED,
+        // The item failed validation and was not sent to the database
+        REJECTED,
+        // The item was valid but its insert failed
+        FAILED
+    }
+
+    // Position of the item in the submitted list
+    private int index;
+    private Status status;
+    private RideResponse ride;
+    private String error;
+}
@@ -1,5 +1,7 @@
 package org.example.rideshare.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -14,4 +16,26 @@ public class CreateRideRequest {
 
     @NotBlank(message = "Drop location is required")
     private String dropLocation;
+
+    // Coordinates are optional; rides without a pickup point are not part of the nearby feed
+    @DecimalMin(value = "-90.0", message = "Pickup latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Pickup latitude must be between -90 and 90")
+    private Double pickupLat;
+
+    @DecimalMin(value = "-180.0", message = "Pickup longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Pickup longitude must be between -180 and 180")
+    private Double pickupLng;
+
+    @DecimalMin(value = "-90.0", message = "Drop latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Drop latitude must be between -90 and 90")
+    private Double dropLat;
+
+    @DecimalMin(value = "-180.0", message = "Drop longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Drop longitude must be between -180 and 180")
+    private Double dropLng;
+
+    public CreateRideRequest(String pickupLocation, String dropLocation) {
+        this.pickupLocation = pickupLocation;
+        this.dropLocation = dropLocation;
+    }
 }
@@ -0,0 +1,22 @@
+package org.example.rideshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+/**
+ * One nearby driver as riders see it: no identity, and a position rounded to a coarse grid.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DriverLocationResponse {
+    private double lat;
+    private double lng;
+    private Date updatedAt;
+    private double distanceMeters;
+}
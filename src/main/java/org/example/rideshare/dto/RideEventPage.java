@@ -0,0 +1,17 @@
+package org.example.rideshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.rideshare.model.RideEvent;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RideEventPage {
+    private List<RideEvent> events;
+    // Pass back as ?after= to keep tailing; equals the requested offset when nothing new was committed
+    private long nextAfter;
+}
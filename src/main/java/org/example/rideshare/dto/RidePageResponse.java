@@ -0,0 +1,16 @@
+package org.example.rideshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RidePageResponse {
+    private List<RideResponse> items;
+    // Pass back as ?cursor= to fetch the next page; null on the last page
+    private String nextCursor;
+}
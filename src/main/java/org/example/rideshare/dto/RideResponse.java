@@ -1,5 +1,6 @@
 package org.example.rideshare.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,6 +19,17 @@ public class RideResponse {
     private String driverId;
     private String pickupLocation;
     private String dropLocation;
+    private Double pickupLat;
+    private Double pickupLng;
+    private Double dropLat;
+    private Double dropLng;
     private RideStatus status;
     private Date createdAt;
+
+    // Location dictionary references, set when a response is read straight from Mongo and
+    // resolved into pickupLocation/dropLocation before it is returned
+    @JsonIgnore
+    private String pickupPlaceId;
+    @JsonIgnore
+    private String dropPlaceId;
 }
@@ -0,0 +1,24 @@
+package org.example.rideshare.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Date;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RideSummaryResponse {
+    private String userId;
+    // Rides by current status
+    private long requested;
+    private long accepted;
+    private long completed;
+    private long total;
+    private String lastRideId;
+    private Date firstRideAt;
+    private Date lastRideAt;
+}
@@ -0,0 +1,7 @@
+package org.example.rideshare.exception;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.rideshare.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * Last known position of a driver in {@code driver_locations}, one document per driver. Written
+ * in coalesced batches by {@link org.example.rideshare.service.DriverLocationStore}, so it lags
+ * the in-memory position by up to one flush interval.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("driver_locations")
+public class DriverLocation {
+    @Id
+    private String driverId;
+    private double lat;
+    private double lng;
+    private Date updatedAt;
+}
@@ -0,0 +1,36 @@
+package org.example.rideshare.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One entry of the location dictionary in {@code places}. Rides reference a place by id instead
+ * of repeating its text. The id is derived from {@code key}, the normalized text, so every
+ * instance interns the same text to the same id without coordinating
+ * (see {@link org.example.rideshare.service.PlaceDictionary}).
+ *
+ * {@code name} is the text as first seen. Interning never stores coordinates: riders' texts such
+ * as "home" are shared by everyone who types them. Only places an operator marks {@code curated}
+ * carry {@code lat}/{@code lng}, which rides created without coordinates then take.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("places")
+public class Place {
+    @Id
+    private String id;
+    private String key;
+    private String name;
+    private Double lat;
+    private Double lng;
+    private boolean curated;
+    private Date createdAt;
+}
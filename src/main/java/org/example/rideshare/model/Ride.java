@@ -10,8 +10,13 @@ import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.util.Date;
 
+/**
+ * Pickup and drop locations are references into the location dictionary ({@code pickupPlaceId},
+ * {@code dropPlaceId}); {@code pickupLocation}/{@code dropLocation} hold the text only for rides
+ * written before it, or while it was full.
+ */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document("rides")
@@ -20,8 +25,14 @@ public class Ride {
     private String id;
     private String userId;
     private String driverId;
+    private String pickupPlaceId;
+    private String dropPlaceId;
     private String pickupLocation;
     private String dropLocation;
+    private Double pickupLat;
+    private Double pickupLng;
+    private Double dropLat;
+    private Double dropLng;
     private RideStatus status;
     private Date createdAt;
 }
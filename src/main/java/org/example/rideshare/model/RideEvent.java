@@ -0,0 +1,45 @@
+package org.example.rideshare.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.rideshare.RideStatus;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.Date;
+
+/**
+ * One ride status transition in the append-only {@code ride_events} log. {@code sequence} is the
+ * log offset, unique across instances. With one instance it is gap-free and increasing in commit
+ * order, so a consumer that remembers the last sequence it read never misses or repeats an event
+ * (see {@link org.example.rideshare.service.RideEventLog} for several).
+ *
+ * Location fields are only set on REQUESTED events, so the log alone is enough to replay rides.
+ * Like the ride, an event refers to its locations by place id, with inline text only for rides
+ * that have no place.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Document("ride_events")
+public class RideEvent {
+    @Id
+    private String id;
+    private long sequence;
+    private String rideId;
+    private String userId;
+    private String driverId;
+    private RideStatus status;
+    private String pickupPlaceId;
+    private String dropPlaceId;
+    private String pickupLocation;
+    private String dropLocation;
+    private Double pickupLat;
+    private Double pickupLng;
+    private Double dropLat;
+    private Double dropLng;
+    private Date occurredAt;
+}
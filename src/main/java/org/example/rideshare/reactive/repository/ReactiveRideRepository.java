@@ -0,0 +1,21 @@
+package org.example.rideshare.reactive.repository;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.model.Ride;
+import org.springframework.data.mongodb.repository.Meta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+
+/**
+ * Non-blocking counterpart of {@link org.example.rideshare.repository.RideRepository}.
+ */
+public interface ReactiveRideRepository extends ReactiveMongoRepository<Ride, String>, ReactiveRideRepositoryCustom {
+    Flux<Ride> findByStatus(RideStatus status);
+
+    // Cursor-backed and demand-driven for NDJSON responses
+    @Meta(cursorBatchSize = 500)
+    Flux<Ride> streamByStatusOrderByCreatedAtAscIdAsc(RideStatus status);
+
+    @Meta(cursorBatchSize = 500)
+    Flux<Ride> streamByUserIdOrderByCreatedAtDescIdDesc(String userId);
+}
@@ -0,0 +1,35 @@
+package org.example.rideshare.reactive.repository;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.repository.RideCounts;
+import org.example.rideshare.util.RideCursor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive form of {@link org.example.rideshare.repository.RideRepositoryCustom}; same semantics.
+ */
+public interface ReactiveRideRepositoryCustom {
+
+    Flux<Ride> findByStatusAfter(RideStatus status, RideCursor after, int limit);
+
+    Flux<Ride> findByUserIdAfter(String userId, RideCursor after, int limit);
+
+    Mono<Ride> acceptIfRequested(String rideId, String driverId);
+
+    Mono<Ride> completeIfAccepted(String rideId, String userId);
+
+    Mono<Map<Integer, String>> insertUnordered(List<Ride> rides);
+
+    Mono<Ride> findArchivedById(String rideId);
+
+    Flux<Ride> findArchivedByUserIdAfter(String userId, RideCursor after, int limit);
+
+    Flux<Ride> streamArchivedByUserId(String userId);
+
+    Mono<RideCounts> countRides(String userId);
+}
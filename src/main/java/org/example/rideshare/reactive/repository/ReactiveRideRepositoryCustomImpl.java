@@ -0,0 +1,93 @@
+package org.example.rideshare.reactive.repository;
+
+import com.mongodb.MongoBulkWriteException;
+import org.bson.Document;
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.repository.RideCounts;
+import org.example.rideshare.repository.RideQueries;
+import org.example.rideshare.util.RideCursor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+public class ReactiveRideRepositoryCustomImpl implements ReactiveRideRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveRideRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<Ride> findByStatusAfter(RideStatus status, RideCursor after, int limit) {
+        return mongoTemplate.find(RideQueries.byStatusAfter(status, after, limit), Ride.class);
+    }
+
+    @Override
+    public Flux<Ride> findByUserIdAfter(String userId, RideCursor after, int limit) {
+        return mongoTemplate.find(RideQueries.byUserIdAfter(userId, after, limit), Ride.class);
+    }
+
+    @Override
+    public Mono<Ride> acceptIfRequested(String rideId, String driverId) {
+        return findAndModify(RideQueries.requested(rideId), RideQueries.accept(driverId));
+    }
+
+    @Override
+    public Mono<Ride> completeIfAccepted(String rideId, String userId) {
+        return findAndModify(RideQueries.acceptedFor(rideId, userId), RideQueries.complete());
+    }
+
+    @Override
+    public Mono<Map<Integer, String>> insertUnordered(List<Ride> rides) {
+        if (rides.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Ride.class)
+                .insert(rides)
+                .execute()
+                .<Map<Integer, String>>thenReturn(Map.of())
+                .onErrorResume(BulkOperationException.class,
+                        e -> Mono.just(RideQueries.failuresByIndex(e.getErrors())))
+                .onErrorResume(MongoBulkWriteException.class,
+                        e -> Mono.just(RideQueries.failuresByIndex(e.getWriteErrors())));
+    }
+
+    @Override
+    public Mono<Ride> findArchivedById(String rideId) {
+        return mongoTemplate.findById(rideId, Ride.class, RideQueries.ARCHIVE_COLLECTION);
+    }
+
+    @Override
+    public Flux<Ride> findArchivedByUserIdAfter(String userId, RideCursor after, int limit) {
+        return mongoTemplate.find(RideQueries.byUserIdAfter(userId, after, limit), Ride.class,
+                RideQueries.ARCHIVE_COLLECTION);
+    }
+
+    @Override
+    public Flux<Ride> streamArchivedByUserId(String userId) {
+        return mongoTemplate.find(RideQueries.byUserIdNewestFirst(userId), Ride.class, RideQueries.ARCHIVE_COLLECTION);
+    }
+
+    @Override
+    public Mono<RideCounts> countRides(String userId) {
+        return Mono.zip(
+                mongoTemplate.aggregate(RideQueries.statusCounts(userId), Ride.class, Document.class).collectList(),
+                mongoTemplate.count(RideQueries.byUserId(userId), RideQueries.ARCHIVE_COLLECTION))
+                .map(counts -> RideQueries.rideCounts(counts.getT1(), counts.getT2()));
+    }
+
+    private Mono<Ride> findAndModify(Query query, Update update) {
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Ride.class);
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.rideshare.reactive.repository;
+
+import org.example.rideshare.model.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String>, ReactiveUserRepositoryCustom {
+    Mono<User> findByUsername(String username);
+}
@@ -0,0 +1,11 @@
+package org.example.rideshare.reactive.repository;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive form of {@link org.example.rideshare.repository.UserRepositoryCustom}; same semantics.
+ */
+public interface ReactiveUserRepositoryCustom {
+
+    Mono<Boolean> updatePasswordIfUnchanged(String userId, String expectedHash, String newHash);
+}
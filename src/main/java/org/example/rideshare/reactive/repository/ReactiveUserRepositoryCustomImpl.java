@@ -0,0 +1,24 @@
+package org.example.rideshare.reactive.repository;
+
+import org.example.rideshare.model.User;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+public class ReactiveUserRepositoryCustomImpl implements ReactiveUserRepositoryCustom {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveUserRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Boolean> updatePasswordIfUnchanged(String userId, String expectedHash, String newHash) {
+        Query query = Query.query(Criteria.where("_id").is(userId).and("password").is(expectedHash));
+        return mongoTemplate.updateFirst(query, Update.update("password", newHash), User.class)
+                .map(result -> result.getModifiedCount() == 1);
+    }
+}
@@ -0,0 +1,13 @@
+package org.example.rideshare.repository;
+
+import org.example.rideshare.model.DriverLocation;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.Date;
+import java.util.List;
+
+public interface DriverLocationRepository extends MongoRepository<DriverLocation, String>, DriverLocationRepositoryCustom {
+
+    // Startup reload of positions that are still fresh enough to serve
+    List<DriverLocation> findByUpdatedAtAfter(Date updatedAt);
+}
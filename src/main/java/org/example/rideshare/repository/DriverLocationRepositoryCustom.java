@@ -0,0 +1,20 @@
+package org.example.rideshare.repository;
+
+import org.example.rideshare.model.DriverLocation;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Driver location writes that derived query methods cannot express.
+ */
+public interface DriverLocationRepositoryCustom {
+
+    /**
+     * Upserts each driver's position in one unordered bulk write. A stored position that is
+     * newer than the given one (written by another instance) is kept. Returns the failure
+     * messages of positions that failed for any other reason, keyed by position in
+     * {@code locations}; empty when everything was written.
+     */
+    Map<Integer, String> upsertLatest(List<DriverLocation> locations);
+}
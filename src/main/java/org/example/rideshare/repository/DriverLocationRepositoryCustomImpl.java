@@ -0,0 +1,55 @@
+package org.example.rideshare.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.example.rideshare.model.DriverLocation;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class DriverLocationRepositoryCustomImpl implements DriverLocationRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public DriverLocationRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Map<Integer, String> upsertLatest(List<DriverLocation> locations) {
+        if (locations.isEmpty()) {
+            return Map.of();
+        }
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, DriverLocation.class);
+        for (DriverLocation location : locations) {
+            // Matches only an older position; with a newer one stored the upsert collides on _id instead
+            Query query = Query.query(Criteria.where("_id").is(location.getDriverId())
+                    .and("updatedAt").lt(location.getUpdatedAt()));
+            Update update = new Update()
+                    .set("lat", location.getLat())
+                    .set("lng", location.getLng())
+                    .set("updatedAt", location.getUpdatedAt());
+            bulk.upsert(query, update);
+        }
+        try {
+            bulk.execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            Map<Integer, String> failures = new HashMap<>();
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    failures.put(error.getIndex(), error.getMessage());
+                }
+            }
+            return failures;
+        }
+    }
+}
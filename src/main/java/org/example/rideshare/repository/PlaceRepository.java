@@ -0,0 +1,7 @@
+package org.example.rideshare.repository;
+
+import org.example.rideshare.model.Place;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+public interface PlaceRepository extends MongoRepository<Place, String>, PlaceRepositoryCustom {
+}
@@ -0,0 +1,15 @@
+package org.example.rideshare.repository;
+
+import org.example.rideshare.model.Place;
+
+/**
+ * Location dictionary writes that derived query methods cannot express.
+ */
+public interface PlaceRepositoryCustom {
+
+    /**
+     * Inserts the place unless one with its id exists, in one atomic upsert. Returns the stored
+     * place, which is the existing one when another instance interned it first.
+     */
+    Place insertIfAbsent(Place place);
+}
@@ -0,0 +1,27 @@
+package org.example.rideshare.repository;
+
+import org.example.rideshare.model.Place;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class PlaceRepositoryCustomImpl implements PlaceRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public PlaceRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Place insertIfAbsent(Place place) {
+        Update update = new Update()
+                .setOnInsert("key", place.getKey())
+                .setOnInsert("name", place.getName())
+                .setOnInsert("createdAt", place.getCreatedAt());
+        return mongoTemplate.findAndModify(Query.query(Criteria.where("_id").is(place.getId())), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Place.class);
+    }
+}
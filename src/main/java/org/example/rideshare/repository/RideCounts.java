@@ -0,0 +1,9 @@
+package org.example.rideshare.repository;
+
+/**
+ * A user's rides counted by status, archived rides included in {@code completed}. Rides only move
+ * forward (REQUESTED, ACCEPTED, COMPLETED) and are never deleted, so any new ride or transition
+ * changes the counts, while archiving a ride does not.
+ */
+public record RideCounts(long requested, long accepted, long completed) {
+}
@@ -0,0 +1,18 @@
+package org.example.rideshare.repository;
+
+import org.example.rideshare.model.RideEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.MongoRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface RideEventRepository extends MongoRepository<RideEvent, String>, RideEventRepositoryCustom {
+
+    // Tail read: events after an offset, in log order
+    List<RideEvent> findBySequenceGreaterThanOrderBySequenceAsc(long sequence, Limit limit);
+
+    Optional<RideEvent> findTopByOrderBySequenceDesc();
+
+    Optional<RideEvent> findTopBySequenceLessThanEqualOrderBySequenceDesc(long sequence);
+}
@@ -0,0 +1,19 @@
+package org.example.rideshare.repository;
+
+/**
+ * The {@code ride_events} sequence counter, a single document in {@code counters} that every
+ * instance reserves sequences from.
+ */
+public interface RideEventRepositoryCustom {
+
+    /**
+     * Atomically reserves {@code count} consecutive sequences and returns the first. No other
+     * caller, on any instance, is given a sequence in the block.
+     */
+    long reserveSequences(int count);
+
+    /**
+     * Moves the counter up to at least {@code sequence}, e.g. past events written before it existed.
+     */
+    void raiseSequenceTo(long sequence);
+}
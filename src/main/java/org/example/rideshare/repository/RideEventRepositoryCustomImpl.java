@@ -0,0 +1,36 @@
+package org.example.rideshare.repository;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class RideEventRepositoryCustomImpl implements RideEventRepositoryCustom {
+
+    private static final String COUNTERS_COLLECTION = "counters";
+    private static final String SEQUENCE_COUNTER = "ride_events";
+
+    private final MongoTemplate mongoTemplate;
+
+    public RideEventRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long reserveSequences(int count) {
+        Document counter = mongoTemplate.findAndModify(sequenceCounter(), new Update().inc("value", (long) count),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Document.class, COUNTERS_COLLECTION);
+        return counter.get("value", Number.class).longValue() - count + 1;
+    }
+
+    @Override
+    public void raiseSequenceTo(long sequence) {
+        mongoTemplate.upsert(sequenceCounter(), new Update().max("value", sequence), COUNTERS_COLLECTION);
+    }
+
+    private static Query sequenceCounter() {
+        return Query.query(Criteria.where("_id").is(SEQUENCE_COUNTER));
+    }
+}
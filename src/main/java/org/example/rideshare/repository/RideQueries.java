@@ -0,0 +1,164 @@
+package org.example.rideshare.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.util.RideCursor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query and update shapes shared by the blocking and reactive ride repositories, so both
+ * stacks hit the same indexes and apply the same transition preconditions.
+ */
+public final class RideQueries {
+
+    /**
+     * Completed rides moved out of {@code rides} by the archiver. Same document shape.
+     */
+    public static final String ARCHIVE_COLLECTION = "rides_archive";
+
+    /**
+     * Server-side projection onto the fields of {@code RideResponse}, for queries that decode
+     * straight into it. A constant so derived repository methods can use it in {@code @Query}.
+     */
+    public static final String RESPONSE_FIELDS = "{ 'id': 1, 'userId': 1, 'driverId': 1, "
+            + "'pickupPlaceId': 1, 'dropPlaceId': 1, 'pickupLocation': 1, 'dropLocation': 1, "
+            + "'pickupLat': 1, 'pickupLng': 1, 'dropLat': 1, 'dropLng': 1, 'status': 1, 'createdAt': 1 }";
+
+    private RideQueries() {
+    }
+
+    public static Query withResponseFields(Query query) {
+        Document.parse(RESPONSE_FIELDS).keySet().forEach(query.fields()::include);
+        return query;
+    }
+
+    public static Query byStatusAfter(RideStatus status, RideCursor after, int limit) {
+        return page(Criteria.where("status").is(status), after, Sort.Direction.ASC, limit);
+    }
+
+    public static Query byUserIdAfter(String userId, RideCursor after, int limit) {
+        return page(Criteria.where("userId").is(userId), after, Sort.Direction.DESC, limit);
+    }
+
+    public static Query requested(String rideId) {
+        return Query.query(Criteria.where("id").is(rideId).and("status").is(RideStatus.REQUESTED));
+    }
+
+    public static Update accept(String driverId) {
+        return new Update()
+                .set("status", RideStatus.ACCEPTED)
+                .set("driverId", driverId);
+    }
+
+    public static Query acceptedFor(String rideId, String userId) {
+        return Query.query(Criteria.where("id").is(rideId)
+                .and("status").is(RideStatus.ACCEPTED)
+                .orOperator(Criteria.where("userId").is(userId), Criteria.where("driverId").is(userId)));
+    }
+
+    public static Update complete() {
+        return new Update().set("status", RideStatus.COMPLETED);
+    }
+
+    public static Query byUserId(String userId) {
+        return Query.query(Criteria.where("userId").is(userId));
+    }
+
+    /**
+     * Rides of a user grouped by status, each group as {@code { _id: status, count: n }}; served by
+     * the userId_createdAt_id index.
+     */
+    public static Aggregation statusCounts(String userId) {
+        return Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("userId").is(userId)),
+                Aggregation.group("status").count().as("count"));
+    }
+
+    public static RideCounts rideCounts(List<Document> statusCounts, long archived) {
+        Map<String, Long> byStatus = new HashMap<>();
+        statusCounts.forEach(group -> byStatus.put(group.getString("_id"), group.get("count", Number.class).longValue()));
+        return new RideCounts(
+                byStatus.getOrDefault(RideStatus.REQUESTED.name(), 0L),
+                byStatus.getOrDefault(RideStatus.ACCEPTED.name(), 0L),
+                byStatus.getOrDefault(RideStatus.COMPLETED.name(), 0L) + archived);
+    }
+
+    public static Query byUserIdNewestFirst(String userId) {
+        return byUserId(userId)
+                .with(Sort.by(Sort.Direction.DESC, "createdAt", "id"))
+                .cursorBatchSize(500);
+    }
+
+    /**
+     * Oldest COMPLETED rides created before {@code cutoff}; served by the status_createdAt_id index.
+     */
+    public static Query archivable(Date cutoff, int limit) {
+        return Query.query(Criteria.where("status").is(RideStatus.COMPLETED).and("createdAt").lt(cutoff))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt", "id"))
+                .limit(limit);
+    }
+
+    // The status guard keeps a ride that was somehow reopened in the hot collection
+    public static Query completedIn(List<String> rideIds) {
+        return Query.query(Criteria.where("id").in(rideIds).and("status").is(RideStatus.COMPLETED));
+    }
+
+    public static Query oldestId() {
+        Query query = new Query().with(Sort.by(Sort.Direction.ASC, "id")).limit(1);
+        query.fields().include("id");
+        return query;
+    }
+
+    public static Query summaryFields(String fromId, String toId) {
+        Criteria criteria = new Criteria();
+        if (fromId != null && toId != null) {
+            criteria = Criteria.where("id").gte(fromId).lt(toId);
+        } else if (fromId != null) {
+            criteria = Criteria.where("id").gte(fromId);
+        } else if (toId != null) {
+            criteria = Criteria.where("id").lt(toId);
+        }
+        Query query = Query.query(criteria);
+        query.fields().include("userId", "driverId", "status", "createdAt");
+        return query;
+    }
+
+    /**
+     * Bulk write errors keyed by the position of the failed document in the submitted list.
+     */
+    public static Map<Integer, String> failuresByIndex(List<BulkWriteError> errors) {
+        Map<Integer, String> failures = new HashMap<>();
+        for (BulkWriteError error : errors) {
+            failures.put(error.getIndex(), error.getMessage());
+        }
+        return failures;
+    }
+
+    private static Query page(Criteria filter, RideCursor after, Sort.Direction direction, int limit) {
+        Criteria criteria = filter;
+        if (after != null) {
+            boolean ascending = direction == Sort.Direction.ASC;
+            Criteria laterCreated = ascending
+                    ? Criteria.where("createdAt").gt(after.createdAt())
+                    : Criteria.where("createdAt").lt(after.createdAt());
+            Criteria sameCreatedLaterId = ascending
+                    ? Criteria.where("createdAt").is(after.createdAt()).and("id").gt(after.id())
+                    : Criteria.where("createdAt").is(after.createdAt()).and("id").lt(after.id());
+            criteria = new Criteria().andOperator(filter, new Criteria().orOperator(laterCreated, sameCreatedLaterId));
+        }
+
+        return Query.query(criteria)
+                .with(Sort.by(direction, "createdAt", "id"))
+                .limit(limit);
+    }
+}
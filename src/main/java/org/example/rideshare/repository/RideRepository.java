@@ -1,10 +1,33 @@
 package org.example.rideshare.repository;
 
+import org.example.rideshare.dto.RideResponse;
 import org.example.rideshare.model.Ride;
 import org.example.rideshare.RideStatus;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 
-public interface RideRepository extends MongoRepository<Ride, String> {
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface RideRepository extends MongoRepository<Ride, String>, RideRepositoryCustom {
     Iterable<Ride> findByStatus(RideStatus status);
-    Iterable<Ride> findByUserId(String userId);
+
+    // Only RideResponse's fields are read, and decoded straight into it without an intermediate Ride
+    @Query(value = "{ 'status': ?0 }", fields = RideQueries.RESPONSE_FIELDS, sort = "{ 'createdAt': 1, '_id': 1 }")
+    List<RideResponse> findResponsesByStatusOrderByCreatedAtAscIdAsc(RideStatus status);
+
+    @Query(value = "{ 'userId': ?0 }", fields = RideQueries.RESPONSE_FIELDS, sort = "{ 'createdAt': -1, '_id': -1 }")
+    List<RideResponse> findResponsesByUserIdOrderByCreatedAtDescIdDesc(String userId);
+
+    // Lower id bound for splitting a full scan into chunks
+    Optional<Ride> findFirstByOrderByIdAsc();
+
+    // Cursor-backed streams for NDJSON responses; callers must close them
+    @Meta(cursorBatchSize = 500)
+    Stream<Ride> streamByStatusOrderByCreatedAtAscIdAsc(RideStatus status);
+
+    @Meta(cursorBatchSize = 500)
+    Stream<Ride> streamByUserIdOrderByCreatedAtDescIdDesc(String userId);
 }
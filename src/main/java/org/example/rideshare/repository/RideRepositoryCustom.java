@@ -0,0 +1,92 @@
+package org.example.rideshare.repository;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.util.RideCursor;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Ride queries that derived query methods cannot express.
+ */
+public interface RideRepositoryCustom {
+
+    /**
+     * Rides with the given status, oldest first, strictly after {@code after} (null for the first page).
+     */
+    List<Ride> findByStatusAfter(RideStatus status, RideCursor after, int limit);
+
+    /**
+     * A user's rides, newest first, strictly after {@code after} (null for the first page).
+     */
+    List<Ride> findByUserIdAfter(String userId, RideCursor after, int limit);
+
+    /**
+     * Atomically moves a REQUESTED ride to ACCEPTED for the given driver.
+     * Empty if the ride does not exist or is no longer REQUESTED.
+     */
+    Optional<Ride> acceptIfRequested(String rideId, String driverId);
+
+    /**
+     * Atomically moves an ACCEPTED ride to COMPLETED if the given user is its passenger or driver.
+     * Empty if the ride does not exist, is not ACCEPTED, or the user is not part of it.
+     */
+    Optional<Ride> completeIfAccepted(String rideId, String userId);
+
+    /**
+     * Inserts all rides in one unordered bulk write; ids must already be assigned. A failed
+     * document does not stop the others. Returns the failure messages keyed by position in
+     * {@code rides}, empty when everything was inserted.
+     */
+    Map<Integer, String> insertUnordered(List<Ride> rides);
+
+    /**
+     * Rides with {@code fromId <= id < toId} (null for an open bound), read lazily with only the
+     * fields ride summaries need: id, userId, driverId, status and createdAt. The caller must
+     * close the stream.
+     */
+    Stream<Ride> streamSummaryFields(String fromId, String toId);
+
+    /**
+     * Same as {@link #streamSummaryFields} over the archive collection.
+     */
+    Stream<Ride> streamArchivedSummaryFields(String fromId, String toId);
+
+    /**
+     * Moves up to {@code limit} of the oldest COMPLETED rides created before {@code cutoff} to the
+     * archive collection. Rides are copied before they are deleted, so a failure part way leaves a
+     * ride in both collections, never in neither; readers drop the duplicate. Returns the number
+     * of rides removed from the hot collection.
+     */
+    int archiveCompleted(Date cutoff, int limit);
+
+    Optional<Ride> findArchivedById(String rideId);
+
+    /**
+     * Archived rides of a user, newest first, read with the same projection as
+     * {@link RideRepository#findResponsesByUserIdOrderByCreatedAtDescIdDesc}.
+     */
+    List<RideResponse> findArchivedResponsesByUserId(String userId);
+
+    /**
+     * Archived rides of a user, newest first, strictly after {@code after} (null for the first page).
+     */
+    List<Ride> findArchivedByUserIdAfter(String userId, RideCursor after, int limit);
+
+    /**
+     * Archived rides of a user, newest first, read lazily. The caller must close the stream.
+     */
+    Stream<Ride> streamArchivedByUserId(String userId);
+
+    Optional<String> findOldestArchivedId();
+
+    /**
+     * The user's rides counted by status across both collections: one aggregation and one count.
+     */
+    RideCounts countRides(String userId);
+}
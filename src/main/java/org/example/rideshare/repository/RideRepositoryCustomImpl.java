@@ -0,0 +1,155 @@
+package org.example.rideshare.repository;
+
+import com.mongodb.bulk.BulkWriteError;
+import org.bson.Document;
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.util.RideCursor;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class RideRepositoryCustomImpl implements RideRepositoryCustom {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public RideRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<Ride> findByStatusAfter(RideStatus status, RideCursor after, int limit) {
+        return mongoTemplate.find(RideQueries.byStatusAfter(status, after, limit), Ride.class);
+    }
+
+    @Override
+    public List<Ride> findByUserIdAfter(String userId, RideCursor after, int limit) {
+        return mongoTemplate.find(RideQueries.byUserIdAfter(userId, after, limit), Ride.class);
+    }
+
+    @Override
+    public Optional<Ride> acceptIfRequested(String rideId, String driverId) {
+        return findAndModify(RideQueries.requested(rideId), RideQueries.accept(driverId));
+    }
+
+    @Override
+    public Optional<Ride> completeIfAccepted(String rideId, String userId) {
+        return findAndModify(RideQueries.acceptedFor(rideId, userId), RideQueries.complete());
+    }
+
+    @Override
+    public Stream<Ride> streamSummaryFields(String fromId, String toId) {
+        return mongoTemplate.stream(RideQueries.summaryFields(fromId, toId), Ride.class);
+    }
+
+    @Override
+    public Stream<Ride> streamArchivedSummaryFields(String fromId, String toId) {
+        return mongoTemplate.stream(RideQueries.summaryFields(fromId, toId), Ride.class, RideQueries.ARCHIVE_COLLECTION);
+    }
+
+    @Override
+    public int archiveCompleted(Date cutoff, int limit) {
+        List<Ride> rides = mongoTemplate.find(RideQueries.archivable(cutoff, limit), Ride.class);
+        if (rides.isEmpty()) {
+            return 0;
+        }
+
+        Set<Integer> notCopied = new HashSet<>();
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Ride.class, RideQueries.ARCHIVE_COLLECTION)
+                    .insert(rides)
+                    .execute();
+        } catch (BulkOperationException e) {
+            // A duplicate key means an earlier, interrupted run already copied that ride
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    notCopied.add(error.getIndex());
+                }
+            }
+        }
+
+        List<String> copied = new ArrayList<>(rides.size());
+        for (int i = 0; i < rides.size(); i++) {
+            if (!notCopied.contains(i)) {
+                copied.add(rides.get(i).getId());
+            }
+        }
+        if (copied.isEmpty()) {
+            return 0;
+        }
+        return (int) mongoTemplate.remove(RideQueries.completedIn(copied), Ride.class).getDeletedCount();
+    }
+
+    @Override
+    public Optional<Ride> findArchivedById(String rideId) {
+        return Optional.ofNullable(mongoTemplate.findById(rideId, Ride.class, RideQueries.ARCHIVE_COLLECTION));
+    }
+
+    @Override
+    public List<RideResponse> findArchivedResponsesByUserId(String userId) {
+        return mongoTemplate.find(RideQueries.withResponseFields(RideQueries.byUserIdNewestFirst(userId)),
+                RideResponse.class, RideQueries.ARCHIVE_COLLECTION);
+    }
+
+    @Override
+    public RideCounts countRides(String userId) {
+        List<Document> statusCounts = mongoTemplate.aggregate(RideQueries.statusCounts(userId), Ride.class,
+                Document.class).getMappedResults();
+        return RideQueries.rideCounts(statusCounts,
+                mongoTemplate.count(RideQueries.byUserId(userId), RideQueries.ARCHIVE_COLLECTION));
+    }
+
+    @Override
+    public List<Ride> findArchivedByUserIdAfter(String userId, RideCursor after, int limit) {
+        return mongoTemplate.find(RideQueries.byUserIdAfter(userId, after, limit), Ride.class,
+                RideQueries.ARCHIVE_COLLECTION);
+    }
+
+    @Override
+    public Stream<Ride> streamArchivedByUserId(String userId) {
+        return mongoTemplate.stream(RideQueries.byUserIdNewestFirst(userId), Ride.class, RideQueries.ARCHIVE_COLLECTION);
+    }
+
+    @Override
+    public Optional<String> findOldestArchivedId() {
+        return Optional.ofNullable(mongoTemplate.findOne(RideQueries.oldestId(), Ride.class, RideQueries.ARCHIVE_COLLECTION))
+                .map(Ride::getId);
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Ride> rides) {
+        if (rides.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Ride.class)
+                    .insert(rides)
+                    .execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            return RideQueries.failuresByIndex(e.getErrors());
+        }
+    }
+
+    // Single round trip: the filter carries the precondition, so concurrent callers cannot both win
+    private Optional<Ride> findAndModify(Query query, Update update) {
+        Ride updated = mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), Ride.class);
+        return Optional.ofNullable(updated);
+    }
+}
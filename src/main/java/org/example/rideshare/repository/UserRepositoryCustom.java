@@ -0,0 +1,14 @@
+package org.example.rideshare.repository;
+
+/**
+ * User writes that derived query methods cannot express.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Sets the user's password hash to {@code newHash} if it is still {@code expectedHash}, in one
+     * conditional update that leaves every other field alone. False if the user is gone or the
+     * hash changed since it was read.
+     */
+    boolean updatePasswordIfUnchanged(String userId, String expectedHash, String newHash);
+}
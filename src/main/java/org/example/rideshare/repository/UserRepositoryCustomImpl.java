@@ -0,0 +1,23 @@
+package org.example.rideshare.repository;
+
+import org.example.rideshare.model.User;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    public UserRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public boolean updatePasswordIfUnchanged(String userId, String expectedHash, String newHash) {
+        Query query = Query.query(Criteria.where("_id").is(userId).and("password").is(expectedHash));
+        return mongoTemplate.updateFirst(query, Update.update("password", newHash), User.class)
+                .getModifiedCount() == 1;
+    }
+}
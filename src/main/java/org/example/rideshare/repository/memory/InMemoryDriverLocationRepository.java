@@ -0,0 +1,37 @@
+package org.example.rideshare.repository.memory;
+
+import org.example.rideshare.model.DriverLocation;
+import org.example.rideshare.repository.DriverLocationRepository;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+public class InMemoryDriverLocationRepository extends InMemoryMongoRepository<DriverLocation> implements DriverLocationRepository {
+
+    @Override
+    protected String idOf(DriverLocation location) {
+        return location.getDriverId();
+    }
+
+    @Override
+    protected void assignId(DriverLocation location, String id) {
+        location.setDriverId(id);
+    }
+
+    @Override
+    public List<DriverLocation> findByUpdatedAtAfter(Date updatedAt) {
+        return store.values().stream()
+                .filter(location -> location.getUpdatedAt().after(updatedAt))
+                .toList();
+    }
+
+    @Override
+    public Map<Integer, String> upsertLatest(List<DriverLocation> locations) {
+        for (DriverLocation location : locations) {
+            store.merge(location.getDriverId(), location,
+                    (stored, given) -> stored.getUpdatedAt().after(given.getUpdatedAt()) ? stored : given);
+        }
+        return Map.of();
+    }
+}
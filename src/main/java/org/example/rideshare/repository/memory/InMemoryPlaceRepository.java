@@ -0,0 +1,23 @@
+package org.example.rideshare.repository.memory;
+
+import org.example.rideshare.model.Place;
+import org.example.rideshare.repository.PlaceRepository;
+
+public class InMemoryPlaceRepository extends InMemoryMongoRepository<Place> implements PlaceRepository {
+
+    @Override
+    protected String idOf(Place place) {
+        return place.getId();
+    }
+
+    @Override
+    protected void assignId(Place place, String id) {
+        place.setId(id);
+    }
+
+    @Override
+    public Place insertIfAbsent(Place place) {
+        Place stored = store.putIfAbsent(place.getId(), place);
+        return stored != null ? stored : place;
+    }
+}
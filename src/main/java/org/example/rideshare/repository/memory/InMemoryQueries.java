@@ -0,0 +1,304 @@
+package org.example.rideshare.repository.memory;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.OffsetScrollPosition;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.data.support.ExampleMatcherAccessor;
+
+import java.beans.PropertyDescriptor;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Sorting, query-by-example and fluent queries for {@link InMemoryMongoRepository}, evaluated
+ * against the stored objects' bean properties.
+ *
+ * Examples match on the probe's top-level properties, honouring the matcher's null handling,
+ * ignored paths, string matchers, case sensitivity and value transformers; nested values are
+ * compared with equals. {@code _id} is read as the {@code id} property.
+ */
+final class InMemoryQueries {
+
+    private static final String ID = "id";
+    private static final SpelAwareProxyProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private InMemoryQueries() {
+    }
+
+    static <T> List<T> sorted(Collection<T> values, Sort sort) {
+        if (sort.isUnsorted()) {
+            return new ArrayList<>(values);
+        }
+        return values.stream().sorted(comparator(sort)).toList();
+    }
+
+    static <T> Comparator<T> comparator(Sort sort) {
+        Comparator<T> comparator = (left, right) -> 0;
+        for (Sort.Order order : sort) {
+            String property = property(order.getProperty());
+            Comparator<T> byProperty = (left, right) -> compareValues(
+                    read(left, property), read(right, property), order.isIgnoreCase());
+            comparator = comparator.thenComparing(order.isDescending() ? byProperty.reversed() : byProperty);
+        }
+        return comparator;
+    }
+
+    static <T> boolean matches(Example<? extends T> example, T candidate) {
+        if (!example.getProbeType().isInstance(candidate)) {
+            return false;
+        }
+        ExampleMatcher matcher = example.getMatcher();
+        ExampleMatcherAccessor accessor = new ExampleMatcherAccessor(matcher);
+        BeanWrapper probe = new BeanWrapperImpl(example.getProbe());
+        BeanWrapper entity = new BeanWrapperImpl(candidate);
+
+        boolean any = false;
+        boolean tested = false;
+        for (PropertyDescriptor descriptor : probe.getPropertyDescriptors()) {
+            String path = descriptor.getName();
+            if (descriptor.getReadMethod() == null || path.equals("class") || accessor.isIgnoredPath(path)) {
+                continue;
+            }
+            Object expected = accessor.getValueTransformerForPath(path)
+                    .apply(Optional.ofNullable(probe.getPropertyValue(path)))
+                    .orElse(null);
+            if (expected == null && accessor.getNullHandler() == ExampleMatcher.NullHandler.IGNORE) {
+                continue;
+            }
+            tested = true;
+            boolean match = matchesValue(accessor, path, expected, entity.getPropertyValue(path));
+            if (matcher.isAllMatching() && !match) {
+                return false;
+            }
+            any |= match;
+        }
+        return matcher.isAllMatching() || !tested || any;
+    }
+
+    static <S, R> FluentQuery.FetchableFluentQuery<R> fluent(Supplier<List<S>> matches, Class<R> resultType) {
+        return new ExampleQuery<>(matches, Sort.unsorted(), 0, resultType, List.of());
+    }
+
+    private static boolean matchesValue(ExampleMatcherAccessor accessor, String path, Object expected, Object actual) {
+        if (expected == null || actual == null) {
+            return expected == actual;
+        }
+        if (!(expected instanceof String pattern) || !(actual instanceof String value)) {
+            return Objects.equals(expected, actual);
+        }
+        boolean ignoreCase = accessor.isIgnoreCaseForPath(path);
+        if (ignoreCase) {
+            pattern = pattern.toLowerCase(Locale.ROOT);
+            value = value.toLowerCase(Locale.ROOT);
+        }
+        return switch (accessor.getStringMatcherForPath(path)) {
+            case DEFAULT, EXACT -> value.equals(pattern);
+            case STARTING -> value.startsWith(pattern);
+            case ENDING -> value.endsWith(pattern);
+            case CONTAINING -> value.contains(pattern);
+            case REGEX -> Pattern.compile(pattern, ignoreCase ? Pattern.CASE_INSENSITIVE : 0).matcher(value).matches();
+        };
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static int compareValues(Object left, Object right, boolean ignoreCase) {
+        if (left == null || right == null) {
+            // Nulls first, as MongoDB sorts them
+            return left == right ? 0 : left == null ? -1 : 1;
+        }
+        if (ignoreCase && left instanceof String l && right instanceof String r) {
+            return l.compareToIgnoreCase(r);
+        }
+        return ((Comparable) left).compareTo(right);
+    }
+
+    private static Object read(Object entity, String property) {
+        return new BeanWrapperImpl(entity).getPropertyValue(property);
+    }
+
+    private static String property(String path) {
+        return path.equals("_id") ? ID : path;
+    }
+
+    private record ExampleQuery<S, R>(Supplier<List<S>> matches, Sort sort, int limit, Class<R> resultType,
+                                      List<String> properties) implements FluentQuery.FetchableFluentQuery<R> {
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> sortBy(Sort sort) {
+            return new ExampleQuery<>(matches, this.sort.and(sort), limit, resultType, properties);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> limit(int limit) {
+            return new ExampleQuery<>(matches, sort, limit, resultType, properties);
+        }
+
+        @Override
+        public <N> FluentQuery.FetchableFluentQuery<N> as(Class<N> resultType) {
+            return new ExampleQuery<>(matches, sort, limit, resultType, properties);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> project(Collection<String> properties) {
+            return new ExampleQuery<>(matches, sort, limit, resultType, List.copyOf(properties));
+        }
+
+        @Override
+        public R oneValue() {
+            List<S> found = results();
+            if (found.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, found.size());
+            }
+            return found.isEmpty() ? null : convert(found.get(0));
+        }
+
+        @Override
+        public R firstValue() {
+            List<S> found = results();
+            return found.isEmpty() ? null : convert(found.get(0));
+        }
+
+        @Override
+        public List<R> all() {
+            return results().stream().map(this::convert).toList();
+        }
+
+        @Override
+        public Window<R> scroll(ScrollPosition position) {
+            List<S> found = sorted(matches.get(), sort);
+            int size = limit > 0 ? limit : found.size();
+            if (position instanceof OffsetScrollPosition offset) {
+                int from = (int) Math.min(offset.getOffset(), found.size());
+                int to = Math.min(from + size, found.size());
+                List<R> window = found.subList(from, to).stream().map(this::convert).toList();
+                return Window.from(window, offset.positionFunction(), to < found.size());
+            }
+            KeysetScrollPosition keyset = (KeysetScrollPosition) position;
+            Sort keys = sort.getOrderFor(ID) != null ? sort : sort.and(Sort.by(ID));
+            List<S> ordered = sorted(found, keys);
+            List<S> remaining = keyset.isInitial() ? ordered : ordered.stream()
+                    .filter(entity -> {
+                        int compared = compareToKeys(entity, keys, keyset.getKeys());
+                        return keyset.scrollsForward() ? compared > 0 : compared < 0;
+                    })
+                    .toList();
+            List<S> window = keyset.scrollsForward() || keyset.isInitial()
+                    ? remaining.subList(0, Math.min(size, remaining.size()))
+                    : remaining.subList(Math.max(0, remaining.size() - size), remaining.size());
+            boolean hasNext = window.size() < remaining.size();
+            return Window.from(window.stream().map(this::convert).toList(),
+                    index -> ScrollPosition.of(keysOf(window.get(index), keys), keyset.getDirection()), hasNext);
+        }
+
+        @Override
+        public Page<R> page(Pageable pageable) {
+            List<S> found = results();
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(found.stream().map(this::convert).toList());
+            }
+            return new PageImpl<>(window(found, pageable), pageable, found.size());
+        }
+
+        @Override
+        public Slice<R> slice(Pageable pageable) {
+            List<S> found = results();
+            if (pageable.isUnpaged()) {
+                return new SliceImpl<>(found.stream().map(this::convert).toList());
+            }
+            return new SliceImpl<>(window(found, pageable), pageable,
+                    pageable.getOffset() + pageable.getPageSize() < found.size());
+        }
+
+        @Override
+        public Stream<R> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            return results().size();
+        }
+
+        @Override
+        public boolean exists() {
+            return !matches.get().isEmpty();
+        }
+
+        private List<S> results() {
+            List<S> found = sorted(matches.get(), sort);
+            return limit > 0 && found.size() > limit ? found.subList(0, limit) : found;
+        }
+
+        private List<R> window(List<S> found, Pageable pageable) {
+            List<S> ordered = pageable.getSort().isSorted() ? sorted(found, pageable.getSort()) : found;
+            int from = (int) Math.min(pageable.getOffset(), ordered.size());
+            int to = Math.min(from + pageable.getPageSize(), ordered.size());
+            return ordered.subList(from, to).stream().map(this::convert).toList();
+        }
+
+        // Mirrors a server-side projection: only the requested properties are copied
+        @SuppressWarnings("unchecked")
+        private R convert(S entity) {
+            if (properties.isEmpty() && resultType.isInstance(entity)) {
+                return (R) entity;
+            }
+            if (resultType.isInterface()) {
+                return PROJECTIONS.createProjection(resultType, entity);
+            }
+            R result = BeanUtils.instantiateClass(resultType);
+            BeanWrapper source = new BeanWrapperImpl(entity);
+            BeanWrapper target = new BeanWrapperImpl(result);
+            for (PropertyDescriptor descriptor : target.getPropertyDescriptors()) {
+                String name = descriptor.getName();
+                if (target.isWritableProperty(name) && source.isReadableProperty(name)
+                        && (properties.isEmpty() || properties.contains(name) || name.equals(ID))) {
+                    target.setPropertyValue(name, source.getPropertyValue(name));
+                }
+            }
+            return result;
+        }
+
+        private static Map<String, Object> keysOf(Object entity, Sort keys) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            keys.forEach(order -> values.put(order.getProperty(), read(entity, property(order.getProperty()))));
+            return values;
+        }
+
+        // The position of entity relative to the row the keys were taken from, in sort order
+        private static int compareToKeys(Object entity, Sort keys, Map<String, Object> position) {
+            for (Sort.Order key : keys) {
+                Object value = read(entity, property(key.getProperty()));
+                int compared = compareValues(value, position.get(key.getProperty()), key.isIgnoreCase());
+                if (compared != 0) {
+                    return key.isDescending() ? -compared : compared;
+                }
+            }
+            return 0;
+        }
+    }
+}
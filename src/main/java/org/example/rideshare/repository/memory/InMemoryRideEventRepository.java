@@ -0,0 +1,80 @@
+package org.example.rideshare.repository.memory;
+
+import org.example.rideshare.model.RideEvent;
+import org.example.rideshare.repository.RideEventRepository;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link RideEventRepository} with a sequence index so tail reads do not scan the log.
+ * The sequence counter is shared by every writer using this repository, like the Mongo one.
+ */
+public class InMemoryRideEventRepository extends InMemoryMongoRepository<RideEvent> implements RideEventRepository {
+
+    private final ConcurrentNavigableMap<Long, RideEvent> bySequence = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequenceCounter = new AtomicLong();
+
+    @Override
+    protected String idOf(RideEvent event) {
+        return event.getId();
+    }
+
+    @Override
+    protected void assignId(RideEvent event, String id) {
+        event.setId(id);
+    }
+
+    @Override
+    public <S extends RideEvent> S save(S event) {
+        S saved = super.save(event);
+        bySequence.put(saved.getSequence(), saved);
+        return saved;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        RideEvent removed = store.remove(id);
+        if (removed != null) {
+            bySequence.remove(removed.getSequence());
+        }
+    }
+
+    @Override
+    public void deleteAll() {
+        super.deleteAll();
+        bySequence.clear();
+    }
+
+    @Override
+    public List<RideEvent> findBySequenceGreaterThanOrderBySequenceAsc(long sequence, Limit limit) {
+        return bySequence.tailMap(sequence, false).values().stream()
+                .limit(limit.isLimited() ? limit.max() : Long.MAX_VALUE)
+                .toList();
+    }
+
+    @Override
+    public Optional<RideEvent> findTopByOrderBySequenceDesc() {
+        return Optional.ofNullable(bySequence.lastEntry()).map(Map.Entry::getValue);
+    }
+
+    @Override
+    public Optional<RideEvent> findTopBySequenceLessThanEqualOrderBySequenceDesc(long sequence) {
+        return Optional.ofNullable(bySequence.floorEntry(sequence)).map(Map.Entry::getValue);
+    }
+
+    @Override
+    public long reserveSequences(int count) {
+        return sequenceCounter.getAndAdd(count) + 1;
+    }
+
+    @Override
+    public void raiseSequenceTo(long sequence) {
+        sequenceCounter.accumulateAndGet(sequence, Math::max);
+    }
+}
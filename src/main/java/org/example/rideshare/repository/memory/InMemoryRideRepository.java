@@ -0,0 +1,243 @@
+package org.example.rideshare.repository.memory;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.repository.RideCounts;
+import org.example.rideshare.repository.RideRepository;
+import org.example.rideshare.util.RideCursor;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link RideRepository}. Queries are full scans; conditional transitions are atomic
+ * per ride and replace the stored instance instead of mutating it. Archived rides live in a
+ * second map.
+ */
+public class InMemoryRideRepository extends InMemoryMongoRepository<Ride> implements RideRepository {
+
+    private static final Comparator<Ride> OLDEST_FIRST =
+            Comparator.comparing(Ride::getCreatedAt).thenComparing(Ride::getId);
+
+    private final ConcurrentMap<String, Ride> archive = new ConcurrentHashMap<>();
+
+    @Override
+    protected String idOf(Ride ride) {
+        return ride.getId();
+    }
+
+    @Override
+    protected void assignId(Ride ride, String id) {
+        ride.setId(id);
+    }
+
+    @Override
+    public Iterable<Ride> findByStatus(RideStatus status) {
+        return matching(ride -> ride.getStatus() == status).toList();
+    }
+
+    @Override
+    public List<RideResponse> findResponsesByStatusOrderByCreatedAtAscIdAsc(RideStatus status) {
+        return matching(ride -> ride.getStatus() == status)
+                .sorted(OLDEST_FIRST)
+                .map(InMemoryRideRepository::toResponse)
+                .toList();
+    }
+
+    @Override
+    public List<RideResponse> findResponsesByUserIdOrderByCreatedAtDescIdDesc(String userId) {
+        return matching(ride -> userId.equals(ride.getUserId()))
+                .sorted(OLDEST_FIRST.reversed())
+                .map(InMemoryRideRepository::toResponse)
+                .toList();
+    }
+
+    @Override
+    public Optional<Ride> findFirstByOrderByIdAsc() {
+        return store.values().stream().min(Comparator.comparing(Ride::getId));
+    }
+
+    @Override
+    public Stream<Ride> streamByStatusOrderByCreatedAtAscIdAsc(RideStatus status) {
+        return matching(ride -> ride.getStatus() == status).sorted(OLDEST_FIRST);
+    }
+
+    @Override
+    public Stream<Ride> streamByUserIdOrderByCreatedAtDescIdDesc(String userId) {
+        return matching(ride -> userId.equals(ride.getUserId())).sorted(OLDEST_FIRST.reversed());
+    }
+
+    @Override
+    public List<Ride> findByStatusAfter(RideStatus status, RideCursor after, int limit) {
+        return matching(ride -> ride.getStatus() == status)
+                .filter(ride -> after == null || OLDEST_FIRST.compare(ride, cursorRide(after)) > 0)
+                .sorted(OLDEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public List<Ride> findByUserIdAfter(String userId, RideCursor after, int limit) {
+        return matching(ride -> userId.equals(ride.getUserId()))
+                .filter(ride -> after == null || OLDEST_FIRST.compare(ride, cursorRide(after)) < 0)
+                .sorted(OLDEST_FIRST.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Optional<Ride> acceptIfRequested(String rideId, String driverId) {
+        return transition(rideId,
+                ride -> ride.getStatus() == RideStatus.REQUESTED,
+                ride -> ride.toBuilder().status(RideStatus.ACCEPTED).driverId(driverId).build());
+    }
+
+    @Override
+    public Optional<Ride> completeIfAccepted(String rideId, String userId) {
+        return transition(rideId,
+                ride -> ride.getStatus() == RideStatus.ACCEPTED
+                        && (userId.equals(ride.getUserId()) || userId.equals(ride.getDriverId())),
+                ride -> ride.toBuilder().status(RideStatus.COMPLETED).build());
+    }
+
+    // Hex ObjectId strings of equal length sort like the ids themselves
+    @Override
+    public Stream<Ride> streamSummaryFields(String fromId, String toId) {
+        return matching(ride -> (fromId == null || ride.getId().compareTo(fromId) >= 0)
+                && (toId == null || ride.getId().compareTo(toId) < 0));
+    }
+
+    @Override
+    public Stream<Ride> streamArchivedSummaryFields(String fromId, String toId) {
+        return archive.values().stream()
+                .filter(ride -> (fromId == null || ride.getId().compareTo(fromId) >= 0)
+                        && (toId == null || ride.getId().compareTo(toId) < 0));
+    }
+
+    @Override
+    public int archiveCompleted(Date cutoff, int limit) {
+        List<Ride> rides = matching(ride -> ride.getStatus() == RideStatus.COMPLETED && ride.getCreatedAt().before(cutoff))
+                .sorted(OLDEST_FIRST)
+                .limit(limit)
+                .toList();
+        int moved = 0;
+        for (Ride ride : rides) {
+            archive.putIfAbsent(ride.getId(), ride);
+            if (store.remove(ride.getId(), ride)) {
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    @Override
+    public Optional<Ride> findArchivedById(String rideId) {
+        return Optional.ofNullable(archive.get(rideId));
+    }
+
+    @Override
+    public List<RideResponse> findArchivedResponsesByUserId(String userId) {
+        return archivedOf(userId).sorted(OLDEST_FIRST.reversed()).map(InMemoryRideRepository::toResponse).toList();
+    }
+
+    @Override
+    public RideCounts countRides(String userId) {
+        List<Ride> hot = matching(ride -> userId.equals(ride.getUserId())).toList();
+        return new RideCounts(
+                hot.stream().filter(ride -> ride.getStatus() == RideStatus.REQUESTED).count(),
+                hot.stream().filter(ride -> ride.getStatus() == RideStatus.ACCEPTED).count(),
+                hot.stream().filter(ride -> ride.getStatus() == RideStatus.COMPLETED).count() + archivedOf(userId).count());
+    }
+
+    @Override
+    public List<Ride> findArchivedByUserIdAfter(String userId, RideCursor after, int limit) {
+        return archivedOf(userId)
+                .filter(ride -> after == null || OLDEST_FIRST.compare(ride, cursorRide(after)) < 0)
+                .sorted(OLDEST_FIRST.reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    @Override
+    public Stream<Ride> streamArchivedByUserId(String userId) {
+        return archivedOf(userId).sorted(OLDEST_FIRST.reversed());
+    }
+
+    @Override
+    public Optional<String> findOldestArchivedId() {
+        return archive.keySet().stream().min(Comparator.naturalOrder());
+    }
+
+    @Override
+    public void deleteAll() {
+        super.deleteAll();
+        archive.clear();
+    }
+
+    @Override
+    public Map<Integer, String> insertUnordered(List<Ride> rides) {
+        Map<Integer, String> failures = new HashMap<>();
+        for (int i = 0; i < rides.size(); i++) {
+            Ride ride = rides.get(i);
+            if (store.putIfAbsent(ride.getId(), ride) != null) {
+                failures.put(i, "Duplicate ride id " + ride.getId());
+            }
+        }
+        return failures;
+    }
+
+    private Optional<Ride> transition(String rideId, Predicate<Ride> precondition, UnaryOperator<Ride> change) {
+        AtomicReference<Ride> updated = new AtomicReference<>();
+        store.computeIfPresent(rideId, (id, ride) -> {
+            if (!precondition.test(ride)) {
+                return ride;
+            }
+            Ride next = change.apply(ride);
+            updated.set(next);
+            return next;
+        });
+        return Optional.ofNullable(updated.get());
+    }
+
+    private Stream<Ride> matching(Predicate<Ride> filter) {
+        return store.values().stream().filter(filter);
+    }
+
+    private Stream<Ride> archivedOf(String userId) {
+        return archive.values().stream().filter(ride -> userId.equals(ride.getUserId()));
+    }
+
+    private static Ride cursorRide(RideCursor cursor) {
+        return Ride.builder().createdAt(cursor.createdAt()).id(cursor.id()).build();
+    }
+
+    // What the Mongo projection yields: the response fields, place ids not yet resolved
+    private static RideResponse toResponse(Ride ride) {
+        return RideResponse.builder()
+                .id(ride.getId())
+                .userId(ride.getUserId())
+                .driverId(ride.getDriverId())
+                .pickupPlaceId(ride.getPickupPlaceId())
+                .dropPlaceId(ride.getDropPlaceId())
+                .pickupLocation(ride.getPickupLocation())
+                .dropLocation(ride.getDropLocation())
+                .pickupLat(ride.getPickupLat())
+                .pickupLng(ride.getPickupLng())
+                .dropLat(ride.getDropLat())
+                .dropLng(ride.getDropLng())
+                .status(ride.getStatus())
+                .createdAt(ride.getCreatedAt())
+                .build();
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.rideshare.repository.memory;
+
+import org.example.rideshare.model.User;
+import org.example.rideshare.repository.UserRepository;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * In-memory {@link UserRepository} with a username index so lookups stay O(1).
+ */
+public class InMemoryUserRepository extends InMemoryMongoRepository<User> implements UserRepository {
+
+    private final ConcurrentMap<String, User> byUsername = new ConcurrentHashMap<>();
+    // id -> username as last indexed; users are stored by reference, so a renamed user no longer knows its old name
+    private final ConcurrentMap<String, String> indexedUsernames = new ConcurrentHashMap<>();
+
+    @Override
+    protected String idOf(User user) {
+        return user.getId();
+    }
+
+    @Override
+    protected void assignId(User user, String id) {
+        user.setId(id);
+    }
+
+    @Override
+    public <S extends User> S save(S user) {
+        S saved = super.save(user);
+        String previous = indexedUsernames.put(saved.getId(), saved.getUsername());
+        if (previous != null && !previous.equals(saved.getUsername())) {
+            unindex(previous, saved.getId());
+        }
+        byUsername.put(saved.getUsername(), saved);
+        return saved;
+    }
+
+    @Override
+    public void deleteById(String id) {
+        User removed = store.remove(id);
+        String indexed = indexedUsernames.remove(id);
+        if (indexed != null) {
+            unindex(indexed, id);
+        }
+        if (removed != null) {
+            unindex(removed.getUsername(), id);
+        }
+    }
+
+    @Override
+    public void delete(User user) {
+        deleteById(user.getId());
+    }
+
+    @Override
+    public void deleteAll() {
+        super.deleteAll();
+        byUsername.clear();
+        indexedUsernames.clear();
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return Optional.ofNullable(byUsername.get(username));
+    }
+
+    // Users are shared by reference, so the check and the write hold the user's monitor
+    @Override
+    public boolean updatePasswordIfUnchanged(String userId, String expectedHash, String newHash) {
+        User user = store.get(userId);
+        if (user == null) {
+            return false;
+        }
+        synchronized (user) {
+            if (!Objects.equals(user.getPassword(), expectedHash)) {
+                return false;
+            }
+            user.setPassword(newHash);
+            return true;
+        }
+    }
+
+    // Only while the name still points at this user: another user may have taken it since
+    private void unindex(String username, String id) {
+        byUsername.computeIfPresent(username, (name, user) -> id.equals(user.getId()) ? null : user);
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.model.Ride;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The ride {@link DispatchEngine} last assigned to each driver. An entry lives until the driver
+ * rejoins the pool or RideService completes the ride; it is kept apart from the engine so
+ * RideService can clear it without depending on the engine, which depends on RideService.
+ */
+@Component
+public class DispatchAssignments {
+
+    private final Map<String, RideResponse> byDriver = new ConcurrentHashMap<>();
+
+    public Optional<RideResponse> forDriver(String driverId) {
+        return Optional.ofNullable(byDriver.get(driverId));
+    }
+
+    public int size() {
+        return byDriver.size();
+    }
+
+    void assigned(String driverId, RideResponse ride) {
+        byDriver.put(driverId, ride);
+    }
+
+    void cleared(String driverId) {
+        byDriver.remove(driverId);
+    }
+
+    // Only if it is still this ride: the driver may have been assigned another one since
+    void rideCompleted(Ride ride) {
+        if (ride.getDriverId() != null) {
+            byDriver.computeIfPresent(ride.getDriverId(),
+                    (driverId, assignment) -> ride.getId().equals(assignment.getId()) ? null : assignment);
+        }
+    }
+}
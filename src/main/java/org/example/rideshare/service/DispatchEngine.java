@@ -0,0 +1,287 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.exception.BadRequestException;
+import org.example.rideshare.exception.NotFoundException;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.service.DispatchMatcher.DriverPosition;
+import org.example.rideshare.service.DispatchMatcher.Match;
+import org.example.rideshare.service.UserIdentityCache.UserIdentity;
+import org.example.rideshare.util.GeoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Windowed dispatch: instead of every driver racing for the rides they see, drivers mark
+ * themselves available and every {@code rides.dispatch.window} the engine matches the open
+ * rides to the available drivers by pickup distance ({@link DispatchMatcher}).
+ *
+ * Each match is applied through {@link RideService#assign}, i.e. the same role check and
+ * conditional REQUESTED -> ACCEPTED transition as a manual accept, so dispatch and manual
+ * accepts can run side by side and a ride is still accepted at most once. A window's matches
+ * are applied concurrently on up to {@code rides.dispatch.accept-threads} threads, so a window
+ * with many matches costs a few round trips instead of one per match. An assigned driver leaves
+ * the pool and can read the ride from {@link #assignmentFor} until it completes; a driver whose
+ * ride was taken in the meantime stays available for the next window.
+ *
+ * Availability expires after {@code rides.dispatch.availability-ttl} unless it is renewed.
+ * Drivers are matched from their latest ping in {@link DriverLocationStore}, falling back to the
+ * position they gave when they became available.
+ */
+@Component
+public class DispatchEngine implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DispatchEngine.class);
+
+    private final RideService rideService;
+    private final OpenRideGeoIndex openRideIndex;
+    private final UserIdentityCache userIdentityCache;
+    private final DriverLocationStore driverLocations;
+    private final DispatchAssignments assignments;
+    private final DispatchMatcher matcher;
+    private final ThreadPoolExecutor acceptPool;
+    private final boolean enabled;
+    private final Duration window;
+    private final Duration availabilityTtl;
+
+    private final Map<String, Availability> available = new ConcurrentHashMap<>();
+    private final LongAdder assigned = new LongAdder();
+    private final LongAdder lost = new LongAdder();
+    private Timer matchTimer;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public DispatchEngine(RideService rideService, OpenRideGeoIndex openRideIndex, UserIdentityCache userIdentityCache,
+                          DriverLocationStore driverLocations, DispatchAssignments assignments,
+                          @Value("${rides.dispatch.enabled:true}") boolean enabled,
+                          @Value("${rides.dispatch.window:1500ms}") Duration window,
+                          @Value("${rides.dispatch.availability-ttl:60s}") Duration availabilityTtl,
+                          @Value("${rides.dispatch.max-pickup-km:5}") double maxPickupKm,
+                          @Value("${rides.dispatch.candidates-per-driver:8}") int candidatesPerDriver,
+                          @Value("${rides.dispatch.accept-threads:8}") int acceptThreads,
+                          @Value("${rides.geo.cell-size-degrees:0.01}") double cellSizeDegrees) {
+        if (acceptThreads < 1) {
+            throw new IllegalArgumentException("rides.dispatch.accept-threads must be at least 1");
+        }
+        this.rideService = rideService;
+        this.openRideIndex = openRideIndex;
+        this.userIdentityCache = userIdentityCache;
+        this.driverLocations = driverLocations;
+        this.assignments = assignments;
+        this.matcher = new DispatchMatcher(cellSizeDegrees, maxPickupKm * 1000.0, candidatesPerDriver);
+        this.enabled = enabled;
+        this.window = window;
+        this.availabilityTtl = availabilityTtl;
+        AtomicInteger count = new AtomicInteger();
+        // Threads only exist while windows have matches to apply
+        this.acceptPool = new ThreadPoolExecutor(acceptThreads, acceptThreads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "ride-dispatch-accept-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.acceptPool.allowCoreThreadTimeOut(true);
+    }
+
+    record Availability(UserIdentity driver, double lat, double lng, long expiresAtMillis) {
+    }
+
+    public void makeAvailable(String username, double lat, double lng) {
+        makeAvailable(driver(username), lat, lng);
+    }
+
+    /**
+     * Adds the driver to the pool for the next windows at the given position, or renews and
+     * moves an existing entry. Clears the driver's previous assignment.
+     */
+    public void makeAvailable(UserIdentity driver, double lat, double lng) {
+        rideService.checkCanAccept(driver);
+        if (!GeoUtils.isValidLatitude(lat) || !GeoUtils.isValidLongitude(lng)) {
+            throw new BadRequestException("Latitude must be between -90 and 90 and longitude between -180 and 180");
+        }
+        if (!enabled) {
+            throw new BadRequestException("Dispatch is disabled");
+        }
+        driverLocations.update(driver.id(), lat, lng);
+        assignments.cleared(driver.id());
+        available.put(driver.id(), new Availability(driver, lat, lng,
+                System.currentTimeMillis() + availabilityTtl.toMillis()));
+    }
+
+    public void makeUnavailable(String username) {
+        makeUnavailable(driver(username));
+    }
+
+    public void makeUnavailable(UserIdentity driver) {
+        available.remove(driver.id());
+    }
+
+    public Optional<RideResponse> assignmentFor(String username) {
+        return assignmentFor(driver(username));
+    }
+
+    public Optional<RideResponse> assignmentFor(UserIdentity driver) {
+        return assignments.forDriver(driver.id());
+    }
+
+    public int availableDrivers() {
+        return available.size();
+    }
+
+    /**
+     * Runs one window: matches the current open rides to the drivers available now and applies
+     * the matches. Returns the number of rides assigned.
+     */
+    public int dispatchWindow() {
+        long now = System.currentTimeMillis();
+        available.values().removeIf(availability -> availability.expiresAtMillis() < now);
+        if (available.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Availability> pool = Map.copyOf(available);
+        List<DriverPosition> drivers = new ArrayList<>(pool.size());
+        pool.forEach((id, availability) -> drivers.add(positionOf(id, availability)));
+        List<Ride> rides = openRideIndex.snapshot();
+
+        long start = System.nanoTime();
+        List<Match> matches = matcher.match(rides, drivers);
+        if (matchTimer != null) {
+            matchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        // Each match is a different ride and driver, so their conditional accepts are independent
+        List<Availability> claimed = new ArrayList<>(matches.size());
+        List<CompletableFuture<Optional<RideResponse>>> results = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            Availability availability = pool.get(match.driverId());
+            // Only if the driver is still in the pool with the same entry it was matched on
+            if (!available.remove(match.driverId(), availability)) {
+                continue;
+            }
+            claimed.add(availability);
+            results.add(CompletableFuture.supplyAsync(() -> assign(match, availability.driver()), acceptPool));
+        }
+
+        int count = 0;
+        for (int i = 0; i < results.size(); i++) {
+            Availability availability = claimed.get(i);
+            String driverId = availability.driver().id();
+            Optional<RideResponse> ride = results.get(i).join();
+            if (ride.isPresent()) {
+                assignments.assigned(driverId, ride.get());
+                assigned.increment();
+                count++;
+            } else {
+                available.putIfAbsent(driverId, availability);
+                lost.increment();
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Ride dispatch is disabled");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ride-dispatch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Fixed delay: a slow window postpones the next one instead of overlapping it
+        scheduler.scheduleWithFixedDelay(this::runWindow, window.toMillis(), window.toMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        running = false;
+    }
+
+    // Not in stop(): the lifecycle can be restarted, and start() only recreates the scheduler
+    @PreDestroy
+    public void shutdown() {
+        acceptPool.shutdown();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rides.dispatch.available", this, DispatchEngine::availableDrivers)
+                .description("Drivers waiting for a dispatched ride")
+                .register(registry);
+        FunctionCounter.builder("rides.dispatch.assigned", assigned, LongAdder::sum)
+                .description("Rides assigned by the dispatch engine")
+                .register(registry);
+        FunctionCounter.builder("rides.dispatch.lost", lost, LongAdder::sum)
+                .description("Matches whose ride was accepted by someone else before it was applied")
+                .register(registry);
+        matchTimer = Timer.builder("rides.dispatch.match")
+                .description("Time to compute one window's ride-driver matching")
+                .register(registry);
+    }
+
+    private void runWindow() {
+        try {
+            dispatchWindow();
+        } catch (RuntimeException e) {
+            log.warn("Dispatch window failed: {}", e.getMessage());
+        }
+    }
+
+    // Pings move an available driver between windows
+    private DriverPosition positionOf(String driverId, Availability availability) {
+        return driverLocations.find(driverId)
+                .map(position -> new DriverPosition(driverId, position.lat(), position.lng()))
+                .orElseGet(() -> new DriverPosition(driverId, availability.lat(), availability.lng()));
+    }
+
+    private Optional<RideResponse> assign(Match match, UserIdentity driver) {
+        try {
+            return rideService.assign(match.rideId(), driver);
+        } catch (RuntimeException e) {
+            // The driver's role changed since they became available, or the write failed
+            log.debug("Could not assign ride {} to {}: {}", match.rideId(), match.driverId(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private UserIdentity driver(String username) {
+        return userIdentityCache.find(username)
+                .orElseThrow(() -> new NotFoundException("Driver not found"));
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.util.GeoUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pairs open rides with available drivers so that pickups are short, for one dispatch window.
+ *
+ * An exact assignment (Hungarian) is O(n^3) and does not fit a 1-2 s window at thousands of
+ * rides and drivers. Instead each driver's nearest {@code candidatesPerDriver} rides within
+ * {@code maxPickupMeters} are looked up in a grid index built for the window, all candidate
+ * pairs are sorted by distance and taken greedily, shortest first, skipping rides and drivers
+ * already matched. Drivers whose candidates all went to others get further rounds against the
+ * rides that are left. Each ride goes to at most one driver and vice versa.
+ *
+ * Stateless and not thread-safe per call; a new index is built on every {@link #match}.
+ */
+public class DispatchMatcher {
+
+    private static final int ROUNDS = 3;
+
+    private final double cellSizeDegrees;
+    private final double maxPickupMeters;
+    private final int candidatesPerDriver;
+
+    public DispatchMatcher(double cellSizeDegrees, double maxPickupMeters, int candidatesPerDriver) {
+        if (maxPickupMeters <= 0 || candidatesPerDriver < 1) {
+            throw new IllegalArgumentException("Max pickup distance and candidates per driver must be positive");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.maxPickupMeters = maxPickupMeters;
+        this.candidatesPerDriver = candidatesPerDriver;
+    }
+
+    public record DriverPosition(String driverId, double lat, double lng) {
+    }
+
+    public record Match(String rideId, String driverId, double distanceMeters) {
+    }
+
+    /**
+     * Matches rides (those without pickup coordinates are ignored) to drivers, shortest pickups first.
+     */
+    public List<Match> match(List<Ride> rides, List<DriverPosition> drivers) {
+        OpenRideGeoIndex index = new OpenRideGeoIndex(cellSizeDegrees);
+        rides.forEach(index::add);
+
+        List<Match> matches = new ArrayList<>(Math.min(index.size(), drivers.size()));
+        List<DriverPosition> unmatched = drivers;
+        for (int round = 0; round < ROUNDS && !unmatched.isEmpty() && index.size() > 0; round++) {
+            List<Match> candidates = new ArrayList<>(unmatched.size() * candidatesPerDriver);
+            for (DriverPosition driver : unmatched) {
+                for (Ride ride : index.findNearest(driver.lat(), driver.lng(), maxPickupMeters, candidatesPerDriver)) {
+                    double distance = GeoUtils.distanceMeters(
+                            driver.lat(), driver.lng(), ride.getPickupLat(), ride.getPickupLng());
+                    candidates.add(new Match(ride.getId(), driver.driverId(), distance));
+                }
+            }
+            candidates.sort(Comparator.comparingDouble(Match::distanceMeters));
+
+            Set<String> matchedRides = new HashSet<>();
+            Set<String> matchedDrivers = new HashSet<>();
+            for (Match candidate : candidates) {
+                if (!matchedDrivers.contains(candidate.driverId()) && matchedRides.add(candidate.rideId())) {
+                    matchedDrivers.add(candidate.driverId());
+                    index.remove(candidate.rideId());
+                    matches.add(candidate);
+                }
+            }
+            if (matchedDrivers.isEmpty()) {
+                break;
+            }
+            unmatched = unmatched.stream()
+                    .filter(driver -> !matchedDrivers.contains(driver.driverId()))
+                    .toList();
+        }
+        return matches;
+    }
+}
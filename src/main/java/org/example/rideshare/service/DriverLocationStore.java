@@ -0,0 +1,408 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.rideshare.exception.BadRequestException;
+import org.example.rideshare.exception.ServiceUnavailableException;
+import org.example.rideshare.model.DriverLocation;
+import org.example.rideshare.repository.DriverLocationRepository;
+import org.example.rideshare.util.GeoUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Latest GPS position per driver, sized for pings every few seconds from the whole fleet.
+ *
+ * Each driver gets a fixed slot on first ping. A slot is a few entries in primitive arrays: the
+ * position packed into one long as two fixed-point (1e-7 degree, about 1 cm) ints, so readers
+ * always see a matching lat/lng pair without locking, the ping time, and a dirty bit. After the
+ * first ping an update is a map lookup and three atomic stores, with no allocation.
+ *
+ * Every {@code drivers.location.flush-interval} the dirty slots are written to
+ * {@code driver_locations} in bulk upserts of {@code drivers.location.batch-size}, so a driver
+ * pinging many times per interval costs one write. The durable copy lags by up to one interval
+ * and reloads the store at startup. Positions older than {@code drivers.location.stale-after}
+ * are left out of queries. Slots are never reused; {@code drivers.location.capacity} bounds the
+ * number of distinct drivers.
+ */
+@Component
+public class DriverLocationStore implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(DriverLocationStore.class);
+
+    private static final int SEGMENT_SHIFT = 12;
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+    private static final double FIXED_POINT = 1e7;
+    private static final long FULL_TURN = 3_600_000_000L;
+    private static final LongBinaryOperator OR = (bits, bit) -> bits | bit;
+
+    private final DriverLocationRepository repository;
+    private final int capacity;
+    private final Duration flushInterval;
+    private final int batchSize;
+    private final Duration staleAfter;
+
+    private final Map<String, Integer> slots = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<Segment> segments;
+    private final AtomicInteger nextSlot = new AtomicInteger();
+    private final LongAdder pings = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private Timer flushTimer;
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public DriverLocationStore(DriverLocationRepository repository,
+                               @Value("${drivers.location.capacity:262144}") int capacity,
+                               @Value("${drivers.location.flush-interval:5s}") Duration flushInterval,
+                               @Value("${drivers.location.batch-size:1000}") int batchSize,
+                               @Value("${drivers.location.stale-after:2m}") Duration staleAfter) {
+        if (capacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("drivers.location.capacity and batch-size must be at least 1");
+        }
+        this.repository = repository;
+        this.capacity = capacity;
+        this.flushInterval = flushInterval;
+        this.batchSize = batchSize;
+        this.staleAfter = staleAfter;
+        this.segments = new AtomicReferenceArray<>((capacity + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+    }
+
+    public record Position(String driverId, double lat, double lng, long updatedAtMillis, double distanceMeters) {
+    }
+
+    /**
+     * Records the driver's current position. Only the latest position per driver is kept.
+     */
+    public void update(String driverId, double lat, double lng) {
+        if (!GeoUtils.isValidLatitude(lat) || !GeoUtils.isValidLongitude(lng)) {
+            throw new BadRequestException("Latitude must be between -90 and 90 and longitude between -180 and 180");
+        }
+        int slot = slotFor(driverId);
+        store(slot, pack(lat, lng), System.currentTimeMillis());
+        markDirty(slot);
+        pings.increment();
+    }
+
+    public Optional<Position> find(String driverId) {
+        Integer slot = slots.get(driverId);
+        if (slot == null) {
+            return Optional.empty();
+        }
+        Segment segment = segments.get(slot >>> SEGMENT_SHIFT);
+        int index = slot & SEGMENT_MASK;
+        long updatedAt = segment.updatedAt.get(index);
+        if (updatedAt == 0 || updatedAt < System.currentTimeMillis() - staleAfter.toMillis()) {
+            return Optional.empty();
+        }
+        long position = segment.positions.get(index);
+        return Optional.of(new Position(driverId, latOf(position), lngOf(position), updatedAt, 0));
+    }
+
+    /**
+     * Up to {@code limit} drivers with a fresh position within {@code radiusMeters} of the point,
+     * nearest first.
+     *
+     * A scan over the packed positions: a bounding box in fixed-point ints rejects almost every
+     * slot without floating point, and only the survivors get an exact distance. That keeps a
+     * query around a millisecond for a six-figure fleet while pings stay three stores; a spatial
+     * index would move that cost onto every ping instead.
+     */
+    public List<Position> findNearby(double lat, double lng, double radiusMeters, int limit) {
+        if (!(radiusMeters > 0) || limit < 1) {
+            throw new BadRequestException("Radius and limit must be greater than 0");
+        }
+        long centerLat = Math.round(lat * FIXED_POINT);
+        long centerLng = Math.round(lng * FIXED_POINT);
+        double radiusDegrees = radiusMeters / GeoUtils.METERS_PER_DEGREE;
+        long latDelta = (long) Math.ceil(radiusDegrees * FIXED_POINT);
+        double cosLat = Math.cos(Math.toRadians(Math.min(90.0, Math.abs(lat) + radiusDegrees)));
+        // Near the poles the box spans every longitude
+        long lngDelta = cosLat > radiusDegrees / 180.0
+                ? (long) Math.ceil(radiusDegrees / cosLat * FIXED_POINT)
+                : FULL_TURN;
+        long freshAfter = System.currentTimeMillis() - staleAfter.toMillis();
+
+        PriorityQueue<Position> nearest = new PriorityQueue<>(
+                Comparator.comparingDouble(Position::distanceMeters).reversed());
+        int used = Math.min(nextSlot.get(), capacity);
+        for (int s = 0; s << SEGMENT_SHIFT < used; s++) {
+            Segment segment = segments.get(s);
+            if (segment == null) {
+                continue;
+            }
+            int end = Math.min(SEGMENT_SIZE, used - (s << SEGMENT_SHIFT));
+            for (int i = 0; i < end; i++) {
+                long position = segment.positions.get(i);
+                if (Math.abs((position >> 32) - centerLat) > latDelta) {
+                    continue;
+                }
+                long lngDistance = Math.abs((long) (int) position - centerLng);
+                if (Math.min(lngDistance, FULL_TURN - lngDistance) > lngDelta) {
+                    continue;
+                }
+                long updatedAt = segment.updatedAt.get(i);
+                if (updatedAt == 0 || updatedAt < freshAfter) {
+                    continue;
+                }
+                double distance = GeoUtils.distanceMeters(lat, lng, latOf(position), lngOf(position));
+                if (distance > radiusMeters
+                        || (nearest.size() == limit && distance >= nearest.peek().distanceMeters())) {
+                    continue;
+                }
+                nearest.add(new Position(segment.driverIds[i], latOf(position), lngOf(position), updatedAt, distance));
+                if (nearest.size() > limit) {
+                    nearest.poll();
+                }
+            }
+        }
+        List<Position> result = new ArrayList<>(nearest);
+        result.sort(Comparator.comparingDouble(Position::distanceMeters));
+        return result;
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Writes every position updated since the last flush. Returns the number written.
+     */
+    public synchronized int flush() {
+        long start = System.nanoTime();
+        int flushed = 0;
+        List<DriverLocation> batch = new ArrayList<>(batchSize);
+        int[] batchSlots = new int[batchSize];
+        int used = Math.min(nextSlot.get(), capacity);
+        try {
+            for (int s = 0; s << SEGMENT_SHIFT < used; s++) {
+                Segment segment = segments.get(s);
+                if (segment == null) {
+                    continue;
+                }
+                for (int word = 0; word < segment.dirty.length(); word++) {
+                    if (segment.dirty.get(word) == 0) {
+                        continue;
+                    }
+                    // Clear before reading: a ping landing after this re-marks the slot for the next flush
+                    long bits = segment.dirty.getAndSet(word, 0);
+                    try {
+                        while (bits != 0) {
+                            int index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                            bits &= bits - 1;
+                            batchSlots[batch.size()] = (s << SEGMENT_SHIFT) + index;
+                            batch.add(toLocation(segment, index));
+                            if (batch.size() == batchSize) {
+                                flushed += write(batch, batchSlots);
+                            }
+                        }
+                    } catch (RuntimeException e) {
+                        segment.dirty.getAndAccumulate(word, bits, OR);
+                        throw e;
+                    }
+                }
+            }
+            flushed += write(batch, batchSlots);
+        } finally {
+            if (flushTimer != null && flushed > 0) {
+                flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+        return flushed;
+    }
+
+    @Override
+    public void start() {
+        Date freshAfter = new Date(System.currentTimeMillis() - staleAfter.toMillis());
+        List<DriverLocation> stored = repository.findByUpdatedAtAfter(freshAfter);
+        for (DriverLocation location : stored) {
+            if (slots.size() >= capacity) {
+                break;
+            }
+            store(slotFor(location.getDriverId()), pack(location.getLat(), location.getLng()),
+                    location.getUpdatedAt().getTime());
+        }
+        log.info("Loaded {} recent driver locations", slots.size());
+
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "driver-location-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::runFlush, flushInterval.toMillis(), flushInterval.toMillis(),
+                TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        // Pings stopped with the web server; persist what the last interval collected
+        runFlush();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Loaded before the web server accepts pings, flushed after it stops
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("drivers.location.tracked", this, DriverLocationStore::size)
+                .description("Drivers with a slot in the location store")
+                .register(registry);
+        FunctionCounter.builder("drivers.location.pings", pings, LongAdder::sum)
+                .description("Driver location updates accepted")
+                .register(registry);
+        FunctionCounter.builder("drivers.location.written", written, LongAdder::sum)
+                .description("Driver positions written to driver_locations")
+                .register(registry);
+        FunctionCounter.builder("drivers.location.write.failures", writeFailures, LongAdder::sum)
+                .description("Driver position batches that failed, in whole or in part, and were retried")
+                .register(registry);
+        FunctionCounter.builder("drivers.location.rejected", rejected, LongAdder::sum)
+                .description("Pings from new drivers rejected because the store is full")
+                .register(registry);
+        flushTimer = Timer.builder("drivers.location.flush")
+                .description("Time to write the positions collected in one flush interval")
+                .register(registry);
+    }
+
+    private int slotFor(String driverId) {
+        Integer slot = slots.get(driverId);
+        if (slot != null) {
+            return slot;
+        }
+        return slots.computeIfAbsent(driverId, this::allocate);
+    }
+
+    private int allocate(String driverId) {
+        int slot = nextSlot.getAndUpdate(next -> next < capacity ? next + 1 : next);
+        if (slot >= capacity) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Driver location capacity reached");
+        }
+        int s = slot >>> SEGMENT_SHIFT;
+        Segment segment = segments.get(s);
+        if (segment == null) {
+            segments.compareAndSet(s, null, new Segment());
+            segment = segments.get(s);
+        }
+        // Published to scanners by the first store's volatile write of updatedAt
+        segment.driverIds[slot & SEGMENT_MASK] = driverId;
+        return slot;
+    }
+
+    private void store(int slot, long position, long updatedAt) {
+        Segment segment = segments.get(slot >>> SEGMENT_SHIFT);
+        int index = slot & SEGMENT_MASK;
+        segment.positions.set(index, position);
+        segment.updatedAt.set(index, updatedAt);
+    }
+
+    private void markDirty(int slot) {
+        Segment segment = segments.get(slot >>> SEGMENT_SHIFT);
+        int index = slot & SEGMENT_MASK;
+        long bit = 1L << index;
+        // Read first: a driver pinging again before the flush finds the bit already set
+        if ((segment.dirty.get(index >>> 6) & bit) == 0) {
+            segment.dirty.getAndAccumulate(index >>> 6, bit, OR);
+        }
+    }
+
+    private int write(List<DriverLocation> batch, int[] batchSlots) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        try {
+            Map<Integer, String> failed = repository.upsertLatest(batch);
+            if (!failed.isEmpty()) {
+                // Their dirty bits were cleared when the batch was collected; set them again for the next flush
+                failed.keySet().forEach(i -> markDirty(batchSlots[i]));
+                writeFailures.increment();
+                log.warn("{} of {} driver positions failed to write and will be retried, e.g. {}",
+                        failed.size(), batch.size(), failed.values().iterator().next());
+            }
+            written.add(batch.size() - failed.size());
+            return batch.size() - failed.size();
+        } catch (RuntimeException e) {
+            // Keep them dirty so the next flush retries; newer pings still win
+            for (int i = 0; i < batch.size(); i++) {
+                markDirty(batchSlots[i]);
+            }
+            writeFailures.increment();
+            throw e;
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void runFlush() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Driver location flush failed, retrying in {}: {}", flushInterval, e.getMessage());
+        }
+    }
+
+    private static DriverLocation toLocation(Segment segment, int index) {
+        long position = segment.positions.get(index);
+        return new DriverLocation(segment.driverIds[index], latOf(position), lngOf(position),
+                new Date(segment.updatedAt.get(index)));
+    }
+
+    private static long pack(double lat, double lng) {
+        return (Math.round(lat * FIXED_POINT) << 32) | (Math.round(lng * FIXED_POINT) & 0xFFFF_FFFFL);
+    }
+
+    private static double latOf(long position) {
+        return (position >> 32) / FIXED_POINT;
+    }
+
+    private static double lngOf(long position) {
+        return (int) position / FIXED_POINT;
+    }
+
+    private static final class Segment {
+
+        private final String[] driverIds = new String[SEGMENT_SIZE];
+        private final AtomicLongArray positions = new AtomicLongArray(SEGMENT_SIZE);
+        private final AtomicLongArray updatedAt = new AtomicLongArray(SEGMENT_SIZE);
+        private final AtomicLongArray dirty = new AtomicLongArray(SEGMENT_SIZE >>> 6);
+    }
+}
@@ -0,0 +1,201 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.util.GeoUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory grid index of open (REQUESTED) rides keyed by pickup coordinates.
+ *
+ * The world is cut into square cells of {@code rides.geo.cell-size-degrees}. A nearest-N
+ * query walks rings of cells outwards from the driver's cell and stops as soon as no
+ * unvisited cell can hold a closer ride, so its cost depends on local density rather
+ * than on the total number of open rides.
+ *
+ * Entries are hints for the driver feed only: {@link RideService#acceptRide} still
+ * validates the ride's status against the database.
+ */
+@Component
+public class OpenRideGeoIndex implements MeterBinder {
+
+    private final double cellSizeDegrees;
+    private final int latCells;
+    private final int lngCells;
+
+    private final Map<Long, Map<String, Ride>> cells = new ConcurrentHashMap<>();
+    private final Map<String, Long> cellByRide = new ConcurrentHashMap<>();
+
+    public OpenRideGeoIndex(@Value("${rides.geo.cell-size-degrees:0.01}") double cellSizeDegrees) {
+        if (!(cellSizeDegrees > 0 && cellSizeDegrees <= 10)) {
+            throw new IllegalArgumentException("rides.geo.cell-size-degrees must be in (0, 10]");
+        }
+        this.cellSizeDegrees = cellSizeDegrees;
+        this.latCells = (int) Math.ceil(180.0 / cellSizeDegrees) + 1;
+        this.lngCells = (int) Math.ceil(360.0 / cellSizeDegrees);
+    }
+
+    /**
+     * Adds (or moves) a ride. Rides without pickup coordinates are ignored.
+     */
+    public void add(Ride ride) {
+        if (ride.getId() == null || ride.getPickupLat() == null || ride.getPickupLng() == null) {
+            return;
+        }
+        long cell = cellKey(latIndex(ride.getPickupLat()), lngIndex(ride.getPickupLng()));
+        Long previous = cellByRide.put(ride.getId(), cell);
+        if (previous != null && previous != cell) {
+            removeFromCell(previous, ride.getId());
+        }
+        cells.compute(cell, (key, rides) -> {
+            Map<String, Ride> target = rides != null ? rides : new ConcurrentHashMap<>();
+            target.put(ride.getId(), ride);
+            return target;
+        });
+    }
+
+    public void remove(String rideId) {
+        Long cell = cellByRide.remove(rideId);
+        if (cell != null) {
+            removeFromCell(cell, rideId);
+        }
+    }
+
+    public void clear() {
+        cellByRide.clear();
+        cells.clear();
+    }
+
+    /**
+     * A copy of the indexed rides, in no particular order.
+     */
+    public List<Ride> snapshot() {
+        List<Ride> rides = new ArrayList<>(size());
+        for (Map<String, Ride> cell : cells.values()) {
+            rides.addAll(cell.values());
+        }
+        return rides;
+    }
+
+    public int size() {
+        return cellByRide.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rides.open.indexed", this, OpenRideGeoIndex::size)
+                .description("Open rides held in the nearby-feed grid index")
+                .register(registry);
+    }
+
+    /**
+     * Returns up to {@code limit} indexed rides whose pickup lies within {@code radiusMeters}
+     * of the given point, nearest first.
+     */
+    public List<Ride> findNearest(double lat, double lng, double radiusMeters, int limit) {
+        if (limit <= 0 || radiusMeters <= 0 || cellByRide.isEmpty()) {
+            return List.of();
+        }
+
+        double cellHeightMeters = cellSizeDegrees * GeoUtils.METERS_PER_DEGREE;
+        // Cells get narrower towards the poles; size the search by the narrowest row it can reach
+        double poleward = Math.min(90.0, Math.abs(lat) + radiusMeters / GeoUtils.METERS_PER_DEGREE);
+        double cellWidthMeters = Math.max(1.0, cellHeightMeters * Math.cos(Math.toRadians(poleward)));
+
+        int latRings = (int) Math.ceil(radiusMeters / cellHeightMeters);
+        int lngRings = (int) Math.min((lngCells - 1) / 2, Math.ceil(radiusMeters / cellWidthMeters));
+        int maxRing = Math.max(latRings, lngRings);
+        double minCellMeters = Math.min(cellHeightMeters, cellWidthMeters);
+
+        int centerLat = latIndex(lat);
+        int centerLng = lngIndex(lng);
+        PriorityQueue<Candidate> best = new PriorityQueue<>(
+                limit, Comparator.comparingDouble(Candidate::distanceMeters).reversed());
+
+        for (int ring = 0; ring <= maxRing; ring++) {
+            int dLatMax = Math.min(ring, latRings);
+            for (int dLat = -dLatMax; dLat <= dLatMax; dLat++) {
+                int latIdx = centerLat + dLat;
+                if (latIdx < 0 || latIdx >= latCells) {
+                    continue;
+                }
+                if (Math.abs(dLat) == ring) {
+                    int dLngMax = Math.min(ring, lngRings);
+                    for (int dLng = -dLngMax; dLng <= dLngMax; dLng++) {
+                        collect(latIdx, centerLng + dLng, lat, lng, radiusMeters, limit, best);
+                    }
+                } else if (ring <= lngRings) {
+                    collect(latIdx, centerLng - ring, lat, lng, radiusMeters, limit, best);
+                    if (ring != 0) {
+                        collect(latIdx, centerLng + ring, lat, lng, radiusMeters, limit, best);
+                    }
+                }
+            }
+
+            // Every cell in the next ring is at least ring * minCellMeters away
+            if (best.size() == limit && best.peek().distanceMeters() <= ring * minCellMeters) {
+                break;
+            }
+        }
+
+        List<Ride> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().ride());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void collect(int latIdx, int rawLngIdx, double lat, double lng,
+                         double radiusMeters, int limit, PriorityQueue<Candidate> best) {
+        Map<String, Ride> rides = cells.get(cellKey(latIdx, Math.floorMod(rawLngIdx, lngCells)));
+        if (rides == null) {
+            return;
+        }
+        for (Ride ride : rides.values()) {
+            double distance = GeoUtils.distanceMeters(lat, lng, ride.getPickupLat(), ride.getPickupLng());
+            if (distance > radiusMeters) {
+                continue;
+            }
+            if (best.size() < limit) {
+                best.add(new Candidate(ride, distance));
+            } else if (distance < best.peek().distanceMeters()) {
+                best.poll();
+                best.add(new Candidate(ride, distance));
+            }
+        }
+    }
+
+    private void removeFromCell(long cell, String rideId) {
+        cells.computeIfPresent(cell, (key, rides) -> {
+            rides.remove(rideId);
+            return rides.isEmpty() ? null : rides;
+        });
+    }
+
+    private int latIndex(double lat) {
+        return (int) Math.floor((lat + 90.0) / cellSizeDegrees);
+    }
+
+    private int lngIndex(double lng) {
+        return Math.floorMod((int) Math.floor((lng + 180.0) / cellSizeDegrees), lngCells);
+    }
+
+    private static long cellKey(int latIdx, int lngIdx) {
+        return ((long) latIdx << 32) | (lngIdx & 0xffffffffL);
+    }
+
+    private record Candidate(Ride ride, double distanceMeters) {
+    }
+}
@@ -0,0 +1,246 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.rideshare.dto.RideResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Shared snapshot of the open (REQUESTED) ride list behind {@code GET /driver/rides/requests}.
+ *
+ * Each ride is serialized once, when it enters the snapshot; the response body is those bytes
+ * joined into a JSON array, built once per change and written as-is to every caller. Rides
+ * opened and accepted on this instance patch the snapshot immediately. Every
+ * {@code rides.snapshot.ttl} it is reloaded from the database to pick up other instances'
+ * changes; concurrent callers that find it expired wait for a single reload (single flight).
+ * Patches that land while a reload is running are replayed on top of its result.
+ *
+ * The snapshot's version changes with its contents (a reload that finds the same rides keeps
+ * it), which makes it the list's ETag (see {@link RideVersions}).
+ */
+@Component
+public class OpenRideSnapshot implements MeterBinder {
+
+    private record Entry(RideResponse ride, byte[] json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final long ttlNanos;
+
+    private final Object lock = new Object();
+    // Guarded by lock
+    private Map<String, Entry> rides = new LinkedHashMap<>();
+    private boolean loaded;
+    private long loadedAtNanos;
+    private long version;
+    private byte[] body;
+    private CompletableFuture<Void> reload;
+    private Map<String, Entry> openedDuringReload;
+    private Set<String> closedDuringReload;
+
+    private Timer reloadTimer;
+
+    public OpenRideSnapshot(ObjectMapper objectMapper,
+                            @Value("${rides.snapshot.ttl:1s}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * The open rides as a JSON array in the loader's order (oldest first), followed by rides
+     * opened since the last reload. The returned array is shared and must not be modified.
+     */
+    public byte[] json(Supplier<List<RideResponse>> loader) {
+        ensureFresh(loader);
+        List<byte[]> chunks;
+        long assembledVersion;
+        synchronized (lock) {
+            if (body != null) {
+                return body;
+            }
+            chunks = new ArrayList<>(rides.size());
+            rides.values().forEach(entry -> chunks.add(entry.json()));
+            assembledVersion = version;
+        }
+
+        // Copying happens outside the lock so patches never wait on it
+        byte[] assembled = join(chunks);
+        synchronized (lock) {
+            if (version == assembledVersion) {
+                body = assembled;
+            }
+        }
+        return assembled;
+    }
+
+    /**
+     * Read before {@link #json} or {@link #rides}, so a tag never runs ahead of the body.
+     */
+    public long version(Supplier<List<RideResponse>> loader) {
+        ensureFresh(loader);
+        synchronized (lock) {
+            return version;
+        }
+    }
+
+    public List<RideResponse> rides(Supplier<List<RideResponse>> loader) {
+        ensureFresh(loader);
+        synchronized (lock) {
+            return rides.values().stream().map(Entry::ride).toList();
+        }
+    }
+
+    public void opened(RideResponse ride) {
+        Entry entry = new Entry(ride, objectMapper.writeValueAsBytes(ride));
+        synchronized (lock) {
+            rides.put(ride.getId(), entry);
+            if (reload != null) {
+                openedDuringReload.put(ride.getId(), entry);
+                closedDuringReload.remove(ride.getId());
+            }
+            changed();
+        }
+    }
+
+    public void closed(String rideId) {
+        synchronized (lock) {
+            if (rides.remove(rideId) != null) {
+                changed();
+            }
+            if (reload != null) {
+                closedDuringReload.add(rideId);
+                openedDuringReload.remove(rideId);
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (lock) {
+            return rides.size();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rides.snapshot.size", this, OpenRideSnapshot::size)
+                .description("Open rides in the shared ride request snapshot")
+                .register(registry);
+        reloadTimer = Timer.builder("rides.snapshot.reload")
+                .description("Database reloads of the ride request snapshot")
+                .register(registry);
+    }
+
+    private void ensureFresh(Supplier<List<RideResponse>> loader) {
+        CompletableFuture<Void> pending;
+        boolean leader = false;
+        synchronized (lock) {
+            if (loaded && System.nanoTime() - loadedAtNanos < ttlNanos) {
+                return;
+            }
+            if (reload == null) {
+                reload = new CompletableFuture<>();
+                openedDuringReload = new HashMap<>();
+                closedDuringReload = new HashSet<>();
+                leader = true;
+            }
+            pending = reload;
+        }
+
+        if (leader) {
+            reload(loader, pending);
+            return;
+        }
+        try {
+            pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void reload(Supplier<List<RideResponse>> loader, CompletableFuture<Void> pending) {
+        long start = System.nanoTime();
+        try {
+            Map<String, Entry> fresh = new LinkedHashMap<>();
+            for (RideResponse ride : loader.get()) {
+                fresh.put(ride.getId(), new Entry(ride, objectMapper.writeValueAsBytes(ride)));
+            }
+            synchronized (lock) {
+                closedDuringReload.forEach(fresh::remove);
+                fresh.putAll(openedDuringReload);
+                // Open rides never change in place, so the same ids in the same order are the same list
+                boolean same = loaded && List.copyOf(fresh.keySet()).equals(List.copyOf(rides.keySet()));
+                rides = fresh;
+                // The query may predate the changes since start, so the TTL counts from there
+                loaded = true;
+                loadedAtNanos = start;
+                if (!same) {
+                    changed();
+                }
+                endReload();
+            }
+            pending.complete(null);
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                endReload();
+            }
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (reloadTimer != null) {
+                reloadTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    // Callers hold lock
+    private void changed() {
+        version++;
+        body = null;
+    }
+
+    private void endReload() {
+        reload = null;
+        openedDuringReload = null;
+        closedDuringReload = null;
+    }
+
+    private static byte[] join(List<byte[]> chunks) {
+        int length = 2 + Math.max(0, chunks.size() - 1);
+        for (byte[] chunk : chunks) {
+            length += chunk.length;
+        }
+        byte[] json = new byte[length];
+        int position = 0;
+        json[position++] = '[';
+        for (int i = 0; i < chunks.size(); i++) {
+            if (i > 0) {
+                json[position++] = ',';
+            }
+            byte[] chunk = chunks.get(i);
+            System.arraycopy(chunk, 0, json, position, chunk.length);
+            position += chunk.length;
+        }
+        json[position] = ']';
+        return json;
+    }
+}
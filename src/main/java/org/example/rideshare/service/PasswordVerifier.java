@@ -0,0 +1,185 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.example.rideshare.exception.ServiceUnavailableException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs password hashing (login checks and new passwords) on a dedicated pool of
+ * {@code auth.password.threads} threads, so a burst of logins uses at most that many cores and
+ * ride traffic keeps the rest. At most {@code auth.password.queue-capacity} hashes wait for a
+ * thread; beyond that callers get {@link ServiceUnavailableException} (503) right away instead of
+ * holding a request thread in an ever-growing queue.
+ *
+ * A successful check also re-encodes the password when the stored hash is weaker than the
+ * configured encoder ({@code auth.password.bcrypt-strength}), so raising the cost upgrades users
+ * as they log in.
+ */
+@Component
+public class PasswordVerifier implements MeterBinder {
+
+    /**
+     * {@code upgradedHash} is the password re-encoded at the configured cost, or null when the
+     * stored hash is current or the password did not match.
+     */
+    public record Verification(boolean matches, String upgradedHash) {
+    }
+
+    private static final String UNKNOWN_USER_PASSWORD = "userNotFoundPassword";
+
+    private final PasswordEncoder encoder;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder rehashed = new LongAdder();
+    private volatile String unknownUserHash;
+    private Timer hashTimer;
+
+    public PasswordVerifier(PasswordEncoder encoder,
+                            @Value("${auth.password.threads:0}") int threads,
+                            @Value("${auth.password.queue-capacity:64}") int queueCapacity) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("auth.password.queue-capacity must be at least 1");
+        }
+        // Default: half the cores, leaving the other half for everything else
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger count = new AtomicInteger();
+        this.encoder = encoder;
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Checks {@code rawPassword} against {@code encodedPassword}. A null {@code encodedPassword}
+     * (unknown user) is checked against a dummy hash and never matches, so a login for a missing
+     * user takes as long as one with a wrong password.
+     *
+     * @throws ServiceUnavailableException when the queue is full
+     */
+    public CompletableFuture<Verification> verify(String rawPassword, String encodedPassword) {
+        return submit(() -> {
+            if (encodedPassword == null) {
+                encoder.matches(rawPassword, unknownUserHash());
+                return new Verification(false, null);
+            }
+            if (!encoder.matches(rawPassword, encodedPassword)) {
+                return new Verification(false, null);
+            }
+            if (!encoder.upgradeEncoding(encodedPassword)) {
+                return new Verification(true, null);
+            }
+            rehashed.increment();
+            return new Verification(true, encoder.encode(rawPassword));
+        });
+    }
+
+    /**
+     * @throws ServiceUnavailableException when the queue is full
+     */
+    public CompletableFuture<String> encode(String rawPassword) {
+        return submit(() -> encoder.encode(rawPassword));
+    }
+
+    /**
+     * Waits for a {@link #verify} or {@link #encode} result on the calling thread. Failures are
+     * rethrown as themselves rather than wrapped in {@link CompletionException}, so they map to
+     * their own status instead of a 500; a task the pool turned away is a
+     * {@link ServiceUnavailableException}.
+     */
+    public static <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RejectedExecutionException) {
+                throw saturated();
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    public int queued() {
+        return executor.getQueue().size();
+    }
+
+    public int active() {
+        return executor.getActiveCount();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("auth.password.queued", this, PasswordVerifier::queued)
+                .description("Password hashes waiting for a thread")
+                .register(registry);
+        Gauge.builder("auth.password.active", this, PasswordVerifier::active)
+                .description("Password hashes running")
+                .register(registry);
+        FunctionCounter.builder("auth.password.rehashed", rehashed, LongAdder::sum)
+                .description("Stored passwords re-encoded at the configured cost on login")
+                .register(registry);
+        hashTimer = Timer.builder("auth.password.hash")
+                .description("Time to check or encode one password, excluding the wait for a thread")
+                .register(registry);
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.get();
+                } finally {
+                    if (hashTimer != null) {
+                        hashTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            throw saturated();
+        }
+    }
+
+    private static ServiceUnavailableException saturated() {
+        return new ServiceUnavailableException("Too many logins in progress, please retry shortly");
+    }
+
+    // Encoded on first use, on a pool thread, rather than at startup
+    private String unknownUserHash() {
+        String hash = unknownUserHash;
+        if (hash == null) {
+            hash = encoder.encode(UNKNOWN_USER_PASSWORD);
+            unknownUserHash = hash;
+        }
+        return hash;
+    }
+}
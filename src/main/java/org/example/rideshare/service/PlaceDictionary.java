@@ -0,0 +1,178 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.rideshare.model.Place;
+import org.example.rideshare.repository.PlaceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Location dictionary: pickup and drop texts are interned into {@link Place}s in {@code places}
+ * and rides store the place id, so a busy airport's name is kept once instead of in every ride.
+ *
+ * Texts that differ only in case, spacing or Unicode form share a place. A place's id is a hash
+ * of that normalized text, so instances intern independently and still agree on ids. Lookups in
+ * both directions are served from memory; only the first sight of a place on an instance touches
+ * Mongo. All places are loaded at startup, including the coordinates of curated places, which
+ * are maintained in Mongo by operators and never taken from rides.
+ *
+ * {@code places.capacity} bounds the dictionary: once this instance knows that many places, new
+ * texts are stored inline on the ride, the way rides written before the dictionary hold theirs.
+ */
+@Component
+public class PlaceDictionary implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(PlaceDictionary.class);
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    // 72 bits: 12 url-safe characters, collision-free for any realistic number of places
+    private static final int ID_BYTES = 9;
+
+    private final PlaceRepository repository;
+    private final int capacity;
+
+    private final Map<String, Place> byKey = new ConcurrentHashMap<>();
+    private final Map<String, Place> byId = new ConcurrentHashMap<>();
+    private final LongAdder added = new LongAdder();
+    private final LongAdder inline = new LongAdder();
+    private volatile boolean running;
+
+    public PlaceDictionary(PlaceRepository repository,
+                           @Value("${places.capacity:100000}") int capacity) {
+        this.repository = repository;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Case-folded, NFKC-normalized text with runs of whitespace collapsed.
+     */
+    public static String normalize(String text) {
+        return WHITESPACE.matcher(Normalizer.normalize(text, Normalizer.Form.NFKC).strip())
+                .replaceAll(" ")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    public static String idFor(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, ID_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The place for {@code text}, added on first use. Empty when the dictionary is full and the
+     * text is new, in which case the caller stores the text itself. May write to Mongo; see
+     * {@link #needsWrite}.
+     */
+    public Optional<Place> intern(String text) {
+        String key = normalize(text);
+        Place place = byKey.get(key);
+        if (place != null) {
+            return Optional.of(place);
+        }
+        if (byId.size() >= capacity) {
+            inline.increment();
+            return Optional.empty();
+        }
+
+        Place stored = repository.insertIfAbsent(Place.builder()
+                .id(idFor(key))
+                .key(key)
+                .name(WHITESPACE.matcher(text.strip()).replaceAll(" "))
+                .createdAt(new Date())
+                .build());
+        added.increment();
+        return Optional.of(cache(stored));
+    }
+
+    /**
+     * Whether {@link #intern} would write to Mongo for this text, so non-blocking callers can move
+     * that call off their thread.
+     */
+    public boolean needsWrite(String text) {
+        return !byKey.containsKey(normalize(text)) && byId.size() < capacity;
+    }
+
+    /**
+     * The place with this id, loaded from Mongo if this instance has not seen it yet.
+     */
+    public Optional<Place> find(String id) {
+        Place place = byId.get(id);
+        if (place != null) {
+            return Optional.of(place);
+        }
+        return repository.findById(id).map(this::cache);
+    }
+
+    public boolean isCached(String id) {
+        return id == null || byId.containsKey(id);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    @Override
+    public void start() {
+        repository.findAll().forEach(this::cache);
+        log.info("Loaded {} places", byId.size());
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Loaded before the web server accepts requests
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("places.cached", this, PlaceDictionary::size)
+                .description("Places held in the in-memory location dictionary")
+                .register(registry);
+        FunctionCounter.builder("places.added", added, LongAdder::sum)
+                .description("Places interned by this instance")
+                .register(registry);
+        FunctionCounter.builder("places.inline", inline, LongAdder::sum)
+                .description("Ride locations stored as text because the dictionary was full")
+                .register(registry);
+    }
+
+    private Place cache(Place place) {
+        byId.put(place.getId(), place);
+        byKey.put(place.getKey(), place);
+        return place;
+    }
+}
@@ -0,0 +1,284 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.dto.BatchRideResponse;
+import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.DriverLocationResponse;
+import org.example.rideshare.dto.RidePageResponse;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.dto.RideSummaryResponse;
+import org.example.rideshare.exception.NotFoundException;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.reactive.repository.ReactiveRideRepository;
+import org.example.rideshare.reactive.repository.ReactiveUserRepository;
+import org.example.rideshare.service.UserIdentityCache.UserIdentity;
+import org.example.rideshare.util.RideCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.Callable;
+
+/**
+ * Non-blocking version of {@link RideService} for the {@code reactive} profile.
+ *
+ * Only the I/O differs: role checks, ride construction, failure classification, paging and
+ * response mapping are RideService's own, so both stacks answer every request identically.
+ * Callers are resolved through the shared {@link UserIdentityCache}; misses go to Mongo
+ * reactively instead of through the cache's blocking loader. Places the {@link PlaceDictionary}
+ * does not hold yet are written or loaded on the bounded-elastic scheduler.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveRideService {
+
+    @Autowired
+    private ReactiveRideRepository rideRepository;
+
+    @Autowired
+    private ReactiveUserRepository userRepository;
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private RideService rideService;
+
+    @Autowired
+    private RideFeed rideFeed;
+
+    @Autowired
+    private DispatchEngine dispatchEngine;
+
+    @Autowired
+    private DriverLocationStore driverLocations;
+
+    @Autowired
+    private RideVersions rideVersions;
+
+    public Mono<RideResponse> createRide(CreateRideRequest request, String username) {
+        return identity(username, "User not found")
+                .flatMap(user -> offEventLoopUnless(rideService.placesCached(request),
+                        () -> rideService.newRide(request, user)))
+                .flatMap(rideRepository::save)
+                .map(rideService::rideOpened);
+    }
+
+    public Mono<BatchRideResponse> createRides(List<CreateRideRequest> requests, String username) {
+        return Mono.fromRunnable(() -> rideService.checkBatchSize(requests))
+                .then(identity(username, "User not found"))
+                .flatMap(user -> offEventLoopUnless(requests.stream().allMatch(
+                                request -> request == null || rideService.placesCached(request)),
+                        () -> rideService.planBatch(requests, user)))
+                .flatMap(batch -> rideRepository.insertUnordered(batch.rides())
+                        .map(failures -> rideService.completeBatch(batch, failures)));
+    }
+
+    // The shared snapshot reloads through the blocking repository, so it is read off the event loop
+    public Mono<byte[]> getRequestedRidesJson() {
+        return Mono.fromCallable(rideService::getRequestedRidesJson)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Long> getRequestedRidesVersion() {
+        return Mono.fromCallable(rideService::getRequestedRidesVersion)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<List<RideResponse>> getRequestedRides() {
+        return Mono.fromCallable(rideService::getRequestedRides)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<RidePageResponse> getRequestedRidesPage(String cursor, Integer limit) {
+        return Mono.defer(() -> {
+            int pageSize = rideService.resolvePageSize(limit);
+            RideCursor after = cursor != null ? RideCursor.decode(cursor) : null;
+            return rideRepository.findByStatusAfter(RideStatus.REQUESTED, after, pageSize + 1)
+                    .collectList()
+                    .flatMap(this::withAllPlaces)
+                    .map(rides -> rideService.toPage(rides, pageSize));
+        });
+    }
+
+    public Flux<RideResponse> streamRequestedRides() {
+        return rideRepository.streamByStatusOrderByCreatedAtAscIdAsc(RideStatus.REQUESTED)
+                .concatMap(this::withPlaces)
+                .map(rideService::mapToResponse);
+    }
+
+    /**
+     * The {@link RideFeed} as a Flux. Events are only handed over when the connection asks for
+     * more, so a slow client's backlog coalesces in its feed buffer rather than in Reactor queues.
+     */
+    public Flux<RideFeed.Event> rideRequestFeed() {
+        return Flux.create(sink -> {
+            RideFeed.Subscriber subscriber = rideFeed.subscribe(new RideFeed.Delivery() {
+                @Override
+                public void deliver(RideFeed.Event event) {
+                    sink.next(event);
+                }
+
+                @Override
+                public boolean ready() {
+                    return sink.requestedFromDownstream() > 0;
+                }
+
+                @Override
+                public void disconnected() {
+                    sink.complete();
+                }
+            }, Runnable::run);
+            sink.onRequest(n -> subscriber.requestDrain());
+            sink.onDispose(subscriber::close);
+        });
+    }
+
+    // The geo index is in memory, so the nearby feed never blocks
+    public Mono<List<RideResponse>> getNearbyRequestedRides(double lat, double lng, double radiusKm, int limit) {
+        return Mono.fromCallable(() -> rideService.getNearbyRequestedRides(lat, lng, radiusKm, limit));
+    }
+
+    // The location store is in memory; only resolving the driver can touch Mongo
+    public Mono<Void> updateDriverLocation(String username, double lat, double lng) {
+        return identity(username, "Driver not found")
+                .doOnNext(driver -> driverLocations.update(driver.id(), lat, lng))
+                .then();
+    }
+
+    public Mono<List<DriverLocationResponse>> getNearbyDrivers(double lat, double lng, double radiusKm, int limit) {
+        return Mono.fromCallable(() -> rideService.getNearbyDrivers(lat, lng, radiusKm, limit));
+    }
+
+    public Mono<RideResponse> acceptRide(String rideId, String username) {
+        return identity(username, "Driver not found")
+                .doOnNext(rideService::checkCanAccept)
+                .flatMap(driver -> rideRepository.acceptIfRequested(rideId, driver.id()))
+                .switchIfEmpty(currentRide(rideId).flatMap(current -> Mono.<Ride>error(
+                        rideService.acceptFailure(current.orElse(null)))))
+                .flatMap(this::withPlaces)
+                .map(rideService::rideAccepted);
+    }
+
+    public Mono<RideResponse> completeRide(String rideId, String username) {
+        return identity(username, "User not found")
+                .flatMap(user -> rideRepository.completeIfAccepted(rideId, user.id()))
+                .switchIfEmpty(currentRide(rideId).flatMap(current -> Mono.<Ride>error(
+                        rideService.completeFailure(current.orElse(null)))))
+                .flatMap(this::withPlaces)
+                .map(rideService::rideCompleted);
+    }
+
+    public Mono<Long> getUserRidesVersion(String username) {
+        return identity(username, "User not found")
+                .flatMap(user -> {
+                    OptionalLong version = rideVersions.forRider(user.id());
+                    return version.isPresent()
+                            ? Mono.just(version.getAsLong())
+                            : rideRepository.countRides(user.id()).map(counts -> rideVersions.checked(user.id(), counts));
+                });
+    }
+
+    // Newest first whichever collection a ride is in, as RideService#getUserRides
+    public Flux<RideResponse> getUserRides(String username) {
+        return userRidesNewestFirst(username);
+    }
+
+    public Mono<RidePageResponse> getUserRidesPage(String username, String cursor, Integer limit) {
+        return identity(username, "User not found")
+                .flatMap(user -> {
+                    int pageSize = rideService.resolvePageSize(limit);
+                    RideCursor after = cursor != null ? RideCursor.decode(cursor) : null;
+                    return Mono.zip(
+                                    rideRepository.findByUserIdAfter(user.id(), after, pageSize + 1).collectList(),
+                                    rideRepository.findArchivedByUserIdAfter(user.id(), after, pageSize + 1).collectList())
+                            .map(pages -> rideService.mergeNewestFirst(pages.getT1(), pages.getT2(), pageSize + 1))
+                            .flatMap(this::withAllPlaces)
+                            .map(rides -> rideService.toPage(rides, pageSize));
+                });
+    }
+
+    public Flux<RideResponse> streamUserRides(String username) {
+        return userRidesNewestFirst(username);
+    }
+
+    private Flux<RideResponse> userRidesNewestFirst(String username) {
+        return identity(username, "User not found")
+                .flatMapMany(user -> Flux.mergeComparing(RideService.NEWEST_FIRST,
+                        rideRepository.streamByUserIdOrderByCreatedAtDescIdDesc(user.id()),
+                        rideRepository.streamArchivedByUserId(user.id())))
+                // Both cursors share one order, so a ride in both collections arrives twice in a row
+                .distinctUntilChanged(Ride::getId)
+                .concatMap(this::withPlaces)
+                .map(rideService::mapToResponse);
+    }
+
+    public Mono<RideSummaryResponse> getUserSummary(String username) {
+        return identity(username, "User not found")
+                .map(rideService::riderSummary);
+    }
+
+    public Mono<RideSummaryResponse> getDriverSummary(String username) {
+        return identity(username, "Driver not found")
+                .map(rideService::driverSummary);
+    }
+
+    // The dispatch pool is in memory; only resolving the driver can touch Mongo
+    public Mono<Void> makeAvailable(String username, double lat, double lng) {
+        return identity(username, "Driver not found")
+                .doOnNext(driver -> dispatchEngine.makeAvailable(driver, lat, lng))
+                .then();
+    }
+
+    public Mono<Void> makeUnavailable(String username) {
+        return identity(username, "Driver not found")
+                .doOnNext(dispatchEngine::makeUnavailable)
+                .then();
+    }
+
+    public Mono<RideResponse> getAssignment(String username) {
+        return identity(username, "Driver not found")
+                .flatMap(driver -> Mono.justOrEmpty(dispatchEngine.assignmentFor(driver)));
+    }
+
+    private Mono<UserIdentity> identity(String username, String notFoundMessage) {
+        return Mono.justOrEmpty(userIdentityCache.findCached(username))
+                .switchIfEmpty(Mono.defer(() -> userRepository.findByUsername(username)
+                        .map(userIdentityCache::put)))
+                .switchIfEmpty(Mono.error(() -> new NotFoundException(notFoundMessage)));
+    }
+
+    private Mono<Ride> withPlaces(Ride ride) {
+        return offEventLoopUnless(rideService.placesCached(ride), () -> {
+            rideService.loadPlaces(ride);
+            return ride;
+        });
+    }
+
+    private Mono<List<Ride>> withAllPlaces(List<Ride> rides) {
+        return offEventLoopUnless(rides.stream().allMatch(rideService::placesCached), () -> {
+            rides.forEach(rideService::loadPlaces);
+            return rides;
+        });
+    }
+
+    // Runs a call that may touch the blocking place repository in place when it will not
+    private static <T> Mono<T> offEventLoopUnless(boolean inMemory, Callable<T> call) {
+        Mono<T> result = Mono.fromCallable(call);
+        return inMemory ? result : result.subscribeOn(Schedulers.boundedElastic());
+    }
+
+    // Only subscribed on the losing path of a conditional transition
+    private Mono<Optional<Ride>> currentRide(String rideId) {
+        return Mono.defer(() -> rideRepository.findById(rideId)
+                .switchIfEmpty(rideRepository.findArchivedById(rideId))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty()));
+    }
+}
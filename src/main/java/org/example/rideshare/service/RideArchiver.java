@@ -0,0 +1,135 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.rideshare.repository.RideRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves COMPLETED rides older than {@code rides.archive.min-age} from {@code rides} to
+ * {@code rides_archive}, so the hot collection and its indexes only carry the live working set
+ * plus recent history.
+ *
+ * Every {@code rides.archive.interval} it moves batches of {@code rides.archive.batch-size}
+ * oldest-first, pausing {@code rides.archive.batch-pause} between batches so the copy and delete
+ * traffic never saturates MongoDB, until no eligible ride is left. Age is measured from createdAt.
+ * Reads of a user's history merge both collections in one newest-first order (see
+ * {@link RideService#getUserRides}), so moving a ride leaves the list and its ETag unchanged.
+ */
+@Component
+public class RideArchiver implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(RideArchiver.class);
+
+    private final RideRepository rideRepository;
+    private final boolean enabled;
+    private final Duration minAge;
+    private final Duration interval;
+    private final int batchSize;
+    private final Duration batchPause;
+
+    private final LongAdder archived = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public RideArchiver(RideRepository rideRepository,
+                        @Value("${rides.archive.enabled:true}") boolean enabled,
+                        @Value("${rides.archive.min-age:30d}") Duration minAge,
+                        @Value("${rides.archive.interval:10m}") Duration interval,
+                        @Value("${rides.archive.batch-size:500}") int batchSize,
+                        @Value("${rides.archive.batch-pause:200ms}") Duration batchPause) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("rides.archive.batch-size must be at least 1");
+        }
+        this.rideRepository = rideRepository;
+        this.enabled = enabled;
+        this.minAge = minAge;
+        this.interval = interval;
+        this.batchSize = batchSize;
+        this.batchPause = batchPause;
+    }
+
+    /**
+     * Archives every eligible ride, one throttled batch at a time. Returns the number moved.
+     */
+    public long archiveEligible() throws InterruptedException {
+        Date cutoff = new Date(System.currentTimeMillis() - minAge.toMillis());
+        long moved = 0;
+        while (true) {
+            int batch = rideRepository.archiveCompleted(cutoff, batchSize);
+            moved += batch;
+            archived.add(batch);
+            // A short batch means nothing eligible is left (or the rest failed to copy; next run retries)
+            if (batch < batchSize) {
+                return moved;
+            }
+            Thread.sleep(batchPause.toMillis());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("Ride archiving is disabled");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ride-archiver");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::run, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("rides.archived", archived, LongAdder::sum)
+                .description("Completed rides moved to rides_archive")
+                .register(registry);
+        FunctionCounter.builder("rides.archive.failures", failures, LongAdder::sum)
+                .description("Archive runs that stopped on an error")
+                .register(registry);
+    }
+
+    private void run() {
+        try {
+            long moved = archiveEligible();
+            if (moved > 0) {
+                log.info("Archived {} completed rides older than {}", moved, minAge);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Copy-then-delete leaves nothing half moved, so the next run simply carries on
+            failures.increment();
+            log.warn("Ride archiving failed, retrying in {}: {}", interval, e.getMessage());
+        }
+    }
+}
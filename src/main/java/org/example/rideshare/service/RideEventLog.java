@@ -0,0 +1,264 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideEvent;
+import org.example.rideshare.repository.RideEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only log of ride status transitions, persisted to {@code ride_events}.
+ *
+ * {@link #append} only enqueues onto a lock-free queue, so the request path never waits on
+ * the log. A single writer thread drains the queue and group-commits whatever has accumulated
+ * (up to {@code rides.events.batch-size}) in one ordered insert; the busier the API, the larger
+ * the batches. Each batch takes its offsets as one block from a counter in MongoDB, so writers on
+ * several instances never collide. With one instance offsets are gap-free and increase in commit
+ * order, which is what makes {@link #readAfter} safe to tail; with several, a block can commit
+ * after a higher one from another instance, so a tailer should re-read a short window behind its
+ * offset.
+ *
+ * The queue holds at most {@code rides.events.queue-capacity} events. If MongoDB is down long
+ * enough to fill it, further events are dropped and counted rather than growing the heap. A batch
+ * that fails to commit is retried until it does; its events are never discarded.
+ */
+@Component
+public class RideEventLog implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(RideEventLog.class);
+
+    private final RideEventRepository repository;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final long retryBackoffNanos;
+
+    private final Queue<RideEvent> queue = new ConcurrentLinkedQueue<>();
+    // ConcurrentLinkedQueue.size() is O(n), so the bound is tracked separately
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+    private Timer batchTimer;
+
+    private volatile boolean running;
+    private volatile long committedSequence;
+    private Thread writer;
+
+    public RideEventLog(RideEventRepository repository,
+                        @Value("${rides.events.queue-capacity:100000}") int queueCapacity,
+                        @Value("${rides.events.batch-size:500}") int batchSize,
+                        @Value("${rides.events.flush-interval:10ms}") Duration flushInterval) {
+        if (queueCapacity < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("rides.events.queue-capacity and rides.events.batch-size must be at least 1");
+        }
+        this.repository = repository;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.retryBackoffNanos = TimeUnit.SECONDS.toNanos(1);
+    }
+
+    /**
+     * Records that {@code ride} has just moved to its current status. Never blocks.
+     */
+    public void append(Ride ride) {
+        if (queued.incrementAndGet() > queueCapacity) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(toEvent(ride));
+        appended.increment();
+    }
+
+    /**
+     * Up to {@code limit} committed events with a sequence greater than {@code sequence}, in log
+     * order. Start from 0; pass the last sequence returned to continue.
+     */
+    public List<RideEvent> readAfter(long sequence, int limit) {
+        return repository.findBySequenceGreaterThanOrderBySequenceAsc(sequence, Limit.of(limit));
+    }
+
+    /**
+     * The highest sequence this instance has committed, or the last one found at startup.
+     */
+    public long committedSequence() {
+        return committedSequence;
+    }
+
+    @Override
+    public void start() {
+        committedSequence = repository.findTopByOrderBySequenceDesc()
+                .map(RideEvent::getSequence)
+                .orElse(0L);
+        // Events written before the counter existed keep their offsets
+        repository.raiseSequenceTo(committedSequence);
+        running = true;
+        writer = new Thread(this::runWriter, "ride-event-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (queued.get() > 0) {
+            log.warn("Ride event log stopped with {} events not written", queued.get());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Start before and stop after the web server, so every request that reaches a service is logged
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rides.events.queued", queued, AtomicInteger::get)
+                .description("Ride events waiting for the log writer")
+                .register(registry);
+        FunctionCounter.builder("rides.events.appended", appended, LongAdder::sum)
+                .description("Ride events accepted onto the log queue")
+                .register(registry);
+        FunctionCounter.builder("rides.events.written", written, LongAdder::sum)
+                .description("Ride events committed to ride_events")
+                .register(registry);
+        FunctionCounter.builder("rides.events.dropped", dropped, LongAdder::sum)
+                .description("Ride events discarded because the log queue was full")
+                .register(registry);
+        FunctionCounter.builder("rides.events.write.failures", writeFailures, LongAdder::sum)
+                .description("Failed group commits; the batch is retried")
+                .register(registry);
+        batchTimer = Timer.builder("rides.events.batch")
+                .description("Group commit latency")
+                .register(registry);
+    }
+
+    private void runWriter() {
+        List<RideEvent> batch = new ArrayList<>(batchSize);
+        boolean retrying = false;
+        while (running) {
+            if (batch.isEmpty()) {
+                fill(batch);
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(flushIntervalNanos);
+                continue;
+            }
+            if (!commit(batch)) {
+                LockSupport.parkNanos(retryBackoffNanos);
+            }
+        }
+
+        // Shutdown: flush what is left, giving up at the first failure
+        do {
+            if (batch.isEmpty()) {
+                fill(batch);
+            }
+        } while (!batch.isEmpty() && commit(batch));
+    }
+
+    private void fill(List<RideEvent> batch) {
+        RideEvent event;
+        while (batch.size() < batchSize && (event = queue.poll()) != null) {
+            queued.decrementAndGet();
+            batch.add(event);
+        }
+    }
+
+    // Clears the batch once it is committed; returns false if it must be retried
+    private boolean commit(List<RideEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            if (batch.get(0).getSequence() == 0) {
+                long first = repository.reserveSequences(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    batch.get(i).setSequence(first + i);
+                }
+            } else {
+                // A retry. An ordered insert that failed part way has stored a prefix of the block,
+                // and only this writer stores sequences inside it
+                long last = batch.get(batch.size() - 1).getSequence();
+                long stored = repository.findTopBySequenceLessThanEqualOrderBySequenceDesc(last)
+                        .map(RideEvent::getSequence)
+                        .orElse(0L);
+                batch.removeIf(event -> event.getSequence() <= stored);
+            }
+            if (!batch.isEmpty()) {
+                repository.insert(batch);
+            }
+        } catch (RuntimeException e) {
+            writeFailures.increment();
+            log.warn("Could not write {} ride events, retrying: {}", batch.size(), e.getMessage());
+            return false;
+        }
+        if (!batch.isEmpty()) {
+            committedSequence = batch.get(batch.size() - 1).getSequence();
+            written.add(batch.size());
+        }
+        if (batchTimer != null) {
+            batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        batch.clear();
+        return true;
+    }
+
+    private static RideEvent toEvent(Ride ride) {
+        RideEvent.RideEventBuilder event = RideEvent.builder()
+                .rideId(ride.getId())
+                .userId(ride.getUserId())
+                .driverId(ride.getDriverId())
+                .status(ride.getStatus())
+                .occurredAt(new Date());
+        if (ride.getStatus() == RideStatus.REQUESTED) {
+            event.pickupPlaceId(ride.getPickupPlaceId())
+                    .dropPlaceId(ride.getDropPlaceId())
+                    .pickupLocation(ride.getPickupLocation())
+                    .dropLocation(ride.getDropLocation())
+                    .pickupLat(ride.getPickupLat())
+                    .pickupLng(ride.getPickupLng())
+                    .dropLat(ride.getDropLat())
+                    .dropLng(ride.getDropLng())
+                    .occurredAt(ride.getCreatedAt());
+        }
+        return event.build();
+    }
+}
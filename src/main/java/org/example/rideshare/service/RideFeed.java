@@ -0,0 +1,268 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.example.rideshare.dto.RideResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process fanout of open-ride changes to subscribed drivers: OPENED when a ride is requested,
+ * CLOSED when a driver accepts it.
+ *
+ * Every subscriber has its own buffer of at most {@code rides.feed.buffer-size} rides, so a slow
+ * subscriber never holds up publishers or other subscribers. Buffered events coalesce per ride
+ * (a ride opened and closed before delivery is never sent). When the buffer overflows it is
+ * dropped and replaced by a single RESYNC, which tells the client to reload the list once.
+ *
+ * Blocking transports share {@code rides.feed.delivery-threads} threads and a queue of
+ * {@code rides.feed.delivery-queue} pending drains. A subscriber whose drain finds both full is
+ * disconnected; its client reconnects and reloads, as after a RESYNC.
+ */
+@Component
+public class RideFeed implements MeterBinder {
+
+    public enum EventType {
+        OPENED,
+        CLOSED,
+        RESYNC
+    }
+
+    public record Event(EventType type, String rideId, RideResponse ride) {
+    }
+
+    /**
+     * Where a subscriber's events go. A failed delivery closes the subscription; transports with
+     * demand signalling override {@link #ready()} and call {@link Subscriber#requestDrain()} when
+     * demand returns.
+     */
+    @FunctionalInterface
+    public interface Delivery {
+
+        void deliver(Event event) throws Exception;
+
+        default boolean ready() {
+            return true;
+        }
+
+        /**
+         * Called when the feed itself ends the subscription (failed delivery, delivery pool full)
+         * so the transport can close the connection.
+         */
+        default void disconnected() {
+        }
+    }
+
+    private final int bufferSize;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ThreadPoolExecutor blockingDelivery;
+    private final LongAdder delivered = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder resyncs = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+
+    public RideFeed(@Value("${rides.feed.buffer-size:256}") int bufferSize,
+                    @Value("${rides.feed.delivery-threads:32}") int deliveryThreads,
+                    @Value("${rides.feed.delivery-queue:256}") int deliveryQueue) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("rides.feed.buffer-size must be at least 1");
+        }
+        if (deliveryThreads < 1 || deliveryQueue < 1) {
+            throw new IllegalArgumentException("rides.feed.delivery-threads and delivery-queue must be at least 1");
+        }
+        this.bufferSize = bufferSize;
+        AtomicInteger count = new AtomicInteger();
+        this.blockingDelivery = new ThreadPoolExecutor(deliveryThreads, deliveryThreads, 30, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(deliveryQueue), runnable -> {
+                    Thread thread = new Thread(runnable, "ride-feed-delivery-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.blockingDelivery.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Registers a subscriber. Deliveries for it run on {@code drainExecutor}, one at a time.
+     */
+    public Subscriber subscribe(Delivery delivery, Executor drainExecutor) {
+        Subscriber subscriber = new Subscriber(delivery, drainExecutor);
+        subscribers.add(subscriber);
+        return subscriber;
+    }
+
+    /**
+     * For transports whose writes block (servlet SSE): a stalled client then only holds one
+     * delivery thread while its buffer coalesces. Drains rejected by the full pool disconnect
+     * their subscriber.
+     */
+    public Executor blockingDeliveryExecutor() {
+        return blockingDelivery;
+    }
+
+    public void opened(RideResponse ride) {
+        publish(new Event(EventType.OPENED, ride.getId(), ride));
+    }
+
+    public void closed(String rideId) {
+        publish(new Event(EventType.CLOSED, rideId, null));
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rides.feed.subscribers", this, RideFeed::subscriberCount)
+                .description("Open ride feed subscriptions")
+                .register(registry);
+        FunctionCounter.builder("rides.feed.delivered", delivered, LongAdder::sum)
+                .description("Ride feed events written to subscribers")
+                .register(registry);
+        FunctionCounter.builder("rides.feed.coalesced", coalesced, LongAdder::sum)
+                .description("Buffered ride feed events replaced or cancelled before delivery")
+                .register(registry);
+        FunctionCounter.builder("rides.feed.resyncs", resyncs, LongAdder::sum)
+                .description("Subscriber buffers dropped in favour of a RESYNC")
+                .register(registry);
+        FunctionCounter.builder("rides.feed.disconnects", disconnects, LongAdder::sum)
+                .description("Subscriptions ended by the feed: failed delivery or delivery pool full")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        blockingDelivery.shutdownNow();
+    }
+
+    private void publish(Event event) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    public final class Subscriber implements AutoCloseable {
+
+        private final Delivery delivery;
+        private final Executor drainExecutor;
+        // Guarded by this; insertion order is delivery order
+        private final Map<String, Event> pending = new LinkedHashMap<>();
+        private boolean resyncPending;
+        private final AtomicInteger wip = new AtomicInteger();
+        private volatile boolean closed;
+
+        private Subscriber(Delivery delivery, Executor drainExecutor) {
+            this.delivery = delivery;
+            this.drainExecutor = drainExecutor;
+        }
+
+        private void offer(Event event) {
+            synchronized (this) {
+                if (closed || resyncPending) {
+                    // A pending RESYNC already covers everything up to the client's reload
+                    return;
+                }
+                Event queued = pending.remove(event.rideId());
+                if (queued != null) {
+                    coalesced.increment();
+                    if (queued.type() == EventType.OPENED && event.type() == EventType.CLOSED) {
+                        return;
+                    }
+                }
+                if (pending.size() >= bufferSize) {
+                    pending.clear();
+                    resyncPending = true;
+                    resyncs.increment();
+                } else {
+                    pending.put(event.rideId(), event);
+                }
+            }
+            requestDrain();
+        }
+
+        private synchronized Event poll() {
+            if (resyncPending) {
+                resyncPending = false;
+                return new Event(EventType.RESYNC, null, null);
+            }
+            Iterator<Event> events = pending.values().iterator();
+            if (!events.hasNext()) {
+                return null;
+            }
+            Event next = events.next();
+            events.remove();
+            return next;
+        }
+
+        /**
+         * Schedules delivery of whatever is buffered, unless a drain is already running.
+         */
+        public void requestDrain() {
+            if (closed || wip.getAndIncrement() != 0) {
+                return;
+            }
+            try {
+                drainExecutor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                disconnect();
+            }
+        }
+
+        private void drain() {
+            int missed = 1;
+            do {
+                while (!closed && delivery.ready()) {
+                    Event event = poll();
+                    if (event == null) {
+                        break;
+                    }
+                    try {
+                        delivery.deliver(event);
+                        delivered.increment();
+                    } catch (Exception e) {
+                        disconnect();
+                        return;
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void disconnect() {
+            synchronized (this) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+            }
+            close();
+            disconnects.increment();
+            delivery.disconnected();
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            subscribers.remove(this);
+            synchronized (this) {
+                pending.clear();
+            }
+        }
+    }
+}
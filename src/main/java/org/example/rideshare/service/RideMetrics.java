@@ -0,0 +1,41 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.rideshare.RideStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counters for ride state transitions. Meters are registered once up front so the request path
+ * only increments.
+ */
+@Component
+public class RideMetrics {
+
+    private final Map<RideStatus, Counter> transitions = new EnumMap<>(RideStatus.class);
+    private final Map<RideStatus, Counter> lostTransitions = new EnumMap<>(RideStatus.class);
+
+    public RideMetrics(MeterRegistry registry) {
+        for (RideStatus status : RideStatus.values()) {
+            transitions.put(status, Counter.builder("rides.transitions")
+                    .description("Rides moved into a status")
+                    .tag("to", status.name())
+                    .register(registry));
+            lostTransitions.put(status, Counter.builder("rides.transitions.rejected")
+                    .description("Transitions refused because the ride was no longer in the expected status")
+                    .tag("to", status.name())
+                    .register(registry));
+        }
+    }
+
+    public void transitioned(RideStatus to) {
+        transitions.get(to).increment();
+    }
+
+    public void rejected(RideStatus to) {
+        lostTransitions.get(to).increment();
+    }
+}
@@ -1,123 +1,620 @@
 package org.example.rideshare.service;
 
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.bson.types.ObjectId;
 import org.example.rideshare.RideStatus;
+import org.example.rideshare.dto.BatchRideResponse;
+import org.example.rideshare.dto.BatchRideResult;
 import org.example.rideshare.dto.CreateRideRequest;
+import org.example.rideshare.dto.DriverLocationResponse;
+import org.example.rideshare.dto.RidePageResponse;
 import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.dto.RideSummaryResponse;
 import org.example.rideshare.exception.BadRequestException;
+import org.example.rideshare.exception.ConflictException;
 import org.example.rideshare.exception.NotFoundException;
 import org.example.rideshare.exception.UnauthorizedException;
+import org.example.rideshare.model.Place;
 import org.example.rideshare.model.Ride;
 import org.example.rideshare.model.Role;
-import org.example.rideshare.model.User;
 import org.example.rideshare.repository.RideRepository;
-import org.example.rideshare.repository.UserRepository;
+import org.example.rideshare.service.UserIdentityCache.UserIdentity;
+import org.example.rideshare.util.GeoUtils;
+import org.example.rideshare.util.RideCursor;
+import org.example.rideshare.util.SortedMerge;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
+import java.util.stream.Stream;
 
 @Service
 public class RideService {
 
+    // Listing order of a user's rides; matches the userId_createdAt_id index
+    static final Comparator<Ride> NEWEST_FIRST =
+            Comparator.comparing(Ride::getCreatedAt).thenComparing(Ride::getId).reversed();
+    private static final Comparator<RideResponse> RESPONSES_NEWEST_FIRST =
+            Comparator.comparing(RideResponse::getCreatedAt).thenComparing(RideResponse::getId).reversed();
+
+    // Nearby drivers are shown on a grid of 0.001 degrees (about 110 m), distances to 10 m
+    private static final double NEARBY_GRID = 1000.0;
+    private static final double NEARBY_DISTANCE_STEP = 10.0;
+
     @Autowired
     private RideRepository rideRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private UserIdentityCache userIdentityCache;
+
+    @Autowired
+    private OpenRideGeoIndex openRideIndex;
+
+    @Autowired
+    private RideMetrics rideMetrics;
+
+    @Autowired
+    private RideFeed rideFeed;
+
+    @Autowired
+    private RideEventLog rideEventLog;
+
+    @Autowired
+    private RideSummaryIndex rideSummaries;
+
+    @Autowired
+    private DriverLocationStore driverLocations;
+
+    @Autowired
+    private OpenRideSnapshot openRideSnapshot;
+
+    @Autowired
+    private PlaceDictionary placeDictionary;
+
+    @Autowired
+    private RideVersions rideVersions;
+
+    @Autowired
+    private DispatchAssignments dispatchAssignments;
+
+    @Autowired
+    private Validator validator;
+
+    @Value("${rides.batch.max-size:500}")
+    private int maxBatchSize;
+
+    @Value("${rides.geo.max-results:100}")
+    private int maxNearbyResults;
+
+    @Value("${rides.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${rides.page.max-size:100}")
+    private int maxPageSize;
 
     public RideResponse createRide(CreateRideRequest request, String username) {
-        User user = userRepository.findByUsername(username)
+        UserIdentity user = userIdentityCache.find(username)
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
-        if (user.getRole() != Role.ROLE_USER) {
-            throw new BadRequestException("Only users with ROLE_USER can request rides");
-        }
+        Ride savedRide = rideRepository.save(newRide(request, user));
+        return rideOpened(savedRide);
+    }
 
-        Ride ride = Ride.builder()
-                .userId(user.getId())
-                .pickupLocation(request.getPickupLocation())
-                .dropLocation(request.getDropLocation())
-                .status(RideStatus.REQUESTED)
-                .createdAt(new Date())
-                .build();
+    /**
+     * Creates a batch of rides with one user lookup and one unordered bulk insert. Items are
+     * validated individually: invalid ones are reported as REJECTED and the rest are still created.
+     */
+    public BatchRideResponse createRides(List<CreateRideRequest> requests, String username) {
+        checkBatchSize(requests);
+        UserIdentity user = userIdentityCache.find(username)
+                .orElseThrow(() -> new NotFoundException("User not found"));
 
-        Ride savedRide = rideRepository.save(ride);
-        return mapToResponse(savedRide);
+        RideBatch batch = planBatch(requests, user);
+        return completeBatch(batch, rideRepository.insertUnordered(batch.rides()));
     }
 
+    // Served from the shared snapshot: concurrent callers share one query and one serialization
     public List<RideResponse> getRequestedRides() {
-        Iterable<Ride> rides = rideRepository.findByStatus(RideStatus.REQUESTED);
-        return StreamSupport.stream(rides.spliterator(), false)
+        return openRideSnapshot.rides(this::loadRequestedRides);
+    }
+
+    public byte[] getRequestedRidesJson() {
+        return openRideSnapshot.json(this::loadRequestedRides);
+    }
+
+    // Reloads the snapshot once it is older than rides.snapshot.ttl, like the list itself
+    public long getRequestedRidesVersion() {
+        return openRideSnapshot.version(this::loadRequestedRides);
+    }
+
+    public RidePageResponse getRequestedRidesPage(String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        RideCursor after = cursor != null ? RideCursor.decode(cursor) : null;
+        return toPage(rideRepository.findByStatusAfter(RideStatus.REQUESTED, after, pageSize + 1), pageSize);
+    }
+
+    /**
+     * Open requests, oldest first, read lazily from a Mongo cursor. The caller must close the stream.
+     */
+    public Stream<RideResponse> streamRequestedRides() {
+        // flatMap defers opening the cursor until the stream is consumed and closes it afterwards
+        return Stream.of(RideStatus.REQUESTED)
+                .flatMap(rideRepository::streamByStatusOrderByCreatedAtAscIdAsc)
+                .map(this::mapToResponse);
+    }
+
+    public List<RideResponse> getNearbyRequestedRides(double lat, double lng, double radiusKm, int limit) {
+        checkNearbyQuery(lat, lng, radiusKm, limit);
+
+        return openRideIndex.findNearest(lat, lng, radiusKm * 1000.0, limit).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    public void updateDriverLocation(String username, double lat, double lng) {
+        UserIdentity driver = userIdentityCache.find(username)
+                .orElseThrow(() -> new NotFoundException("Driver not found"));
+
+        driverLocations.update(driver.id(), lat, lng);
+    }
+
+    /**
+     * Served from the in-memory location store; positions are at most drivers.location.stale-after
+     * old. Any rider or driver may ask, so the answer is anonymous and coarse: no driver ids, and
+     * each position snapped to the grid with the distance measured from the snapped point, so
+     * repeated queries from different points cannot recover the exact one.
+     */
+    public List<DriverLocationResponse> getNearbyDrivers(double lat, double lng, double radiusKm, int limit) {
+        checkNearbyQuery(lat, lng, radiusKm, limit);
+
+        return driverLocations.findNearby(lat, lng, radiusKm * 1000.0, limit).stream()
+                .map(position -> {
+                    double coarseLat = Math.round(position.lat() * NEARBY_GRID) / NEARBY_GRID;
+                    double coarseLng = Math.round(position.lng() * NEARBY_GRID) / NEARBY_GRID;
+                    double distance = GeoUtils.distanceMeters(lat, lng, coarseLat, coarseLng);
+                    return DriverLocationResponse.builder()
+                            .lat(coarseLat)
+                            .lng(coarseLng)
+                            .updatedAt(new Date(position.updatedAtMillis()))
+                            .distanceMeters(Math.round(distance / NEARBY_DISTANCE_STEP) * NEARBY_DISTANCE_STEP)
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
     public RideResponse acceptRide(String rideId, String username) {
-        User driver = userRepository.findByUsername(username)
+        UserIdentity driver = userIdentityCache.find(username)
                 .orElseThrow(() -> new NotFoundException("Driver not found"));
 
-        if (driver.getRole() != Role.ROLE_DRIVER) {
-            throw new UnauthorizedException("Only users with ROLE_DRIVER can accept rides");
+        checkCanAccept(driver);
+
+        // The extra read only happens on the losing path, so a successful accept stays one round trip
+        Ride updatedRide = rideRepository.acceptIfRequested(rideId, driver.id())
+                .orElseThrow(() -> acceptFailure(currentRide(rideId)));
+
+        return rideAccepted(updatedRide);
+    }
+
+    public RideResponse completeRide(String rideId, String username) {
+        UserIdentity user = userIdentityCache.find(username)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        Ride updatedRide = rideRepository.completeIfAccepted(rideId, user.id())
+                .orElseThrow(() -> completeFailure(currentRide(rideId)));
+
+        return rideCompleted(updatedRide);
+    }
+
+    // Within rides.etag.ttl a conditional GET never touches Mongo; after it, two counts decide
+    public long getUserRidesVersion(String username) {
+        UserIdentity user = userIdentityCache.find(username)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+        OptionalLong version = rideVersions.forRider(user.id());
+        return version.isPresent()
+                ? version.getAsLong()
+                : rideVersions.checked(user.id(), rideRepository.countRides(user.id()));
+    }
+
+    public List<RideResponse> getUserRides(String username) {
+        UserIdentity user = userIdentityCache.find(username)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        // Newest first whichever collection a ride is in, so archiving never reorders the list; the
+        // hot copy wins while a ride is being archived and briefly exists in both collections
+        List<RideResponse> rides = SortedMerge.distinct(
+                        rideRepository.findResponsesByUserIdOrderByCreatedAtDescIdDesc(user.id()).stream(),
+                        rideRepository.findArchivedResponsesByUserId(user.id()).stream(),
+                        RESPONSES_NEWEST_FIRST)
+                .collect(Collectors.toList());
+        rides.forEach(this::resolvePlaces);
+        return rides;
+    }
+
+    public RidePageResponse getUserRidesPage(String username, String cursor, Integer limit) {
+        UserIdentity user = userIdentityCache.find(username)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        int pageSize = resolvePageSize(limit);
+        RideCursor after = cursor != null ? RideCursor.decode(cursor) : null;
+        List<Ride> rides = mergeNewestFirst(
+                rideRepository.findByUserIdAfter(user.id(), after, pageSize + 1),
+                rideRepository.findArchivedByUserIdAfter(user.id(), after, pageSize + 1),
+                pageSize + 1);
+        return toPage(rides, pageSize);
+    }
+
+    /**
+     * A user's rides, newest first, read lazily from one cursor on the hot collection and one on
+     * the archive, merged in order. The user is resolved eagerly so a missing user still fails
+     * the request; the caller must close the stream.
+     */
+    public Stream<RideResponse> streamUserRides(String username) {
+        UserIdentity user = userIdentityCache.find(username)
+                .orElseThrow(() -> new NotFoundException("User not found"));
+
+        // The cursors are merged directly: iterating a flatMap stream would buffer a whole cursor
+        Stream<Ride> hot = rideRepository.streamByUserIdOrderByCreatedAtDescIdDesc(user.id());
+        Stream<Ride> archived;
+        try {
+            archived = rideRepository.streamArchivedByUserId(user.id());
+        } catch (RuntimeException e) {
+            hot.close();
+            throw e;
         }
+        return SortedMerge.distinct(hot, archived, NEWEST_FIRST)
+                .map(this::mapToResponse);
+    }
+
+    public RideSummaryResponse getUserSummary(String username) {
+        UserIdentity user = userIdentityCache.find(username)
+                .orElseThrow(() -> new NotFoundException("User not found"));
 
-        Ride ride = rideRepository.findById(rideId)
-                .orElseThrow(() -> new NotFoundException("Ride not found"));
+        return riderSummary(user);
+    }
+
+    public RideSummaryResponse getDriverSummary(String username) {
+        UserIdentity driver = userIdentityCache.find(username)
+                .orElseThrow(() -> new NotFoundException("Driver not found"));
+
+        return driverSummary(driver);
+    }
+
+    // The rules and state changes below are shared with ReactiveRideService so both stacks behave the same
 
-        if (ride.getStatus() != RideStatus.REQUESTED) {
-            throw new BadRequestException("Only rides with status REQUESTED can be accepted");
+    void checkCanRequest(UserIdentity user) {
+        if (user.role() != Role.ROLE_USER) {
+            throw new BadRequestException("Only users with ROLE_USER can request rides");
         }
+    }
 
-        ride.setDriverId(driver.getId());
-        ride.setStatus(RideStatus.ACCEPTED);
+    Ride newRide(CreateRideRequest request, UserIdentity user) {
+        checkCanRequest(user);
 
-        Ride updatedRide = rideRepository.save(ride);
-        return mapToResponse(updatedRide);
+        RidePlace pickup = ridePlace(request.getPickupLocation(), request.getPickupLat(), request.getPickupLng());
+        RidePlace drop = ridePlace(request.getDropLocation(), request.getDropLat(), request.getDropLng());
+        return Ride.builder()
+                .userId(user.id())
+                .pickupPlaceId(pickup.placeId())
+                .dropPlaceId(drop.placeId())
+                .pickupLocation(pickup.text())
+                .dropLocation(drop.text())
+                .pickupLat(pickup.lat())
+                .pickupLng(pickup.lng())
+                .dropLat(drop.lat())
+                .dropLng(drop.lng())
+                .status(RideStatus.REQUESTED)
+                .createdAt(new Date())
+                .build();
     }
 
-    public RideResponse completeRide(String rideId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+    /**
+     * Whether {@link #newRide} can build this ride from the in-memory location dictionary alone.
+     */
+    boolean placesCached(CreateRideRequest request) {
+        return !placeDictionary.needsWrite(request.getPickupLocation())
+                && !placeDictionary.needsWrite(request.getDropLocation());
+    }
+
+    /**
+     * Whether {@link #mapToResponse} can expand this ride's places from memory alone.
+     */
+    boolean placesCached(Ride ride) {
+        return placeDictionary.isCached(ride.getPickupPlaceId()) && placeDictionary.isCached(ride.getDropPlaceId());
+    }
+
+    // Blocking: loads the ride's places that this instance has not seen yet
+    void loadPlaces(Ride ride) {
+        placeName(ride.getPickupPlaceId(), null);
+        placeName(ride.getDropPlaceId(), null);
+    }
+
+    RideResponse rideOpened(Ride savedRide) {
+        openRideIndex.add(savedRide);
+        rideMetrics.transitioned(RideStatus.REQUESTED);
+        rideEventLog.append(savedRide);
+        rideSummaries.opened(savedRide);
+        rideVersions.riderChanged(savedRide.getUserId());
+        RideResponse response = mapToResponse(savedRide);
+        openRideSnapshot.opened(response);
+        rideFeed.opened(response);
+        return response;
+    }
 
-        Ride ride = rideRepository.findById(rideId)
-                .orElseThrow(() -> new NotFoundException("Ride not found"));
+    void checkBatchSize(List<CreateRideRequest> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new BadRequestException("At least one ride is required");
+        }
+        if (requests.size() > maxBatchSize) {
+            throw new BadRequestException("At most " + maxBatchSize + " rides can be created per batch");
+        }
+    }
 
-        if (ride.getStatus() != RideStatus.ACCEPTED) {
-            throw new BadRequestException("Only rides with status ACCEPTED can be completed");
+    /**
+     * Validates every item and builds rides for the valid ones. Ids are assigned here so each
+     * result can be matched to its insert without reading anything back.
+     */
+    RideBatch planBatch(List<CreateRideRequest> requests, UserIdentity user) {
+        checkCanRequest(user);
+
+        BatchRideResult[] results = new BatchRideResult[requests.size()];
+        List<Ride> rides = new ArrayList<>(requests.size());
+        List<Integer> positions = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            CreateRideRequest request = requests.get(i);
+            String violations = request == null ? "Ride request is required" : violations(request);
+            if (violations != null) {
+                results[i] = new BatchRideResult(i, BatchRideResult.Status.REJECTED, null, violations);
+                continue;
+            }
+            Ride ride = newRide(request, user);
+            ride.setId(new ObjectId().toHexString());
+            rides.add(ride);
+            positions.add(i);
         }
+        return new RideBatch(results, rides, positions);
+    }
 
-        boolean isPassenger = ride.getUserId().equals(user.getId());
-        boolean isDriver = ride.getDriverId() != null && ride.getDriverId().equals(user.getId());
+    // failures is keyed by position in batch.rides(), as returned by insertUnordered
+    BatchRideResponse completeBatch(RideBatch batch, Map<Integer, String> failures) {
+        BatchRideResult[] results = batch.results();
+        int created = 0;
+        int failed = 0;
+        for (int i = 0; i < batch.rides().size(); i++) {
+            int index = batch.positions().get(i);
+            String failure = failures.get(i);
+            if (failure != null) {
+                results[index] = new BatchRideResult(index, BatchRideResult.Status.FAILED, null, failure);
+                failed++;
+            } else {
+                RideResponse ride = rideOpened(batch.rides().get(i));
+                results[index] = new BatchRideResult(index, BatchRideResult.Status.CREATED, ride, null);
+                created++;
+            }
+        }
+        return new BatchRideResponse(created, results.length - created - failed, failed, Arrays.asList(results));
+    }
 
-        if (!isPassenger && !isDriver) {
-            throw new UnauthorizedException("You are not authorized to complete this ride");
+    void checkCanAccept(UserIdentity driver) {
+        if (driver.role() != Role.ROLE_DRIVER) {
+            throw new UnauthorizedException("Only users with ROLE_DRIVER can accept rides");
         }
+    }
 
-        ride.setStatus(RideStatus.COMPLETED);
+    /**
+     * Dispatch's accept: the same role check and conditional transition as {@link #acceptRide},
+     * for a driver chosen by {@link DispatchEngine}. Empty if the ride is no longer REQUESTED.
+     */
+    Optional<RideResponse> assign(String rideId, UserIdentity driver) {
+        checkCanAccept(driver);
+        Optional<Ride> accepted = rideRepository.acceptIfRequested(rideId, driver.id());
+        if (accepted.isEmpty()) {
+            rideMetrics.rejected(RideStatus.ACCEPTED);
+        }
+        return accepted.map(this::rideAccepted);
+    }
 
-        Ride updatedRide = rideRepository.save(ride);
+    RideResponse rideAccepted(Ride updatedRide) {
+        openRideIndex.remove(updatedRide.getId());
+        openRideSnapshot.closed(updatedRide.getId());
+        rideFeed.closed(updatedRide.getId());
+        rideMetrics.transitioned(RideStatus.ACCEPTED);
+        rideEventLog.append(updatedRide);
+        rideSummaries.accepted(updatedRide);
+        rideVersions.riderChanged(updatedRide.getUserId());
         return mapToResponse(updatedRide);
     }
 
-    public List<RideResponse> getUserRides(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new NotFoundException("User not found"));
+    RideResponse rideCompleted(Ride updatedRide) {
+        openRideIndex.remove(updatedRide.getId());
+        rideMetrics.transitioned(RideStatus.COMPLETED);
+        rideEventLog.append(updatedRide);
+        rideSummaries.completed(updatedRide);
+        rideVersions.riderChanged(updatedRide.getUserId());
+        dispatchAssignments.rideCompleted(updatedRide);
+        return mapToResponse(updatedRide);
+    }
+
+    RideSummaryResponse riderSummary(UserIdentity user) {
+        return toSummaryResponse(user.id(), rideSummaries.forRider(user.id()));
+    }
+
+    RideSummaryResponse driverSummary(UserIdentity driver) {
+        return toSummaryResponse(driver.id(), rideSummaries.forDriver(driver.id()));
+    }
+
+    /**
+     * Explains why a conditional accept matched nothing, given the ride as it is now (null if missing).
+     */
+    RuntimeException acceptFailure(Ride current) {
+        return transitionFailure(current, RideStatus.REQUESTED, RideStatus.ACCEPTED,
+                "Only rides with status REQUESTED can be accepted", null);
+    }
 
-        Iterable<Ride> rides = rideRepository.findByUserId(user.getId());
-        return StreamSupport.stream(rides.spliterator(), false)
+    /**
+     * Explains why a conditional complete matched nothing, given the ride as it is now (null if missing).
+     */
+    RuntimeException completeFailure(Ride current) {
+        return transitionFailure(current, RideStatus.ACCEPTED, RideStatus.COMPLETED,
+                "Only rides with status ACCEPTED can be completed",
+                "You are not authorized to complete this ride");
+    }
+
+    // An archived ride is COMPLETED, so a transition on it is a conflict rather than a missing ride
+    private Ride currentRide(String rideId) {
+        return rideRepository.findById(rideId)
+                .or(() -> rideRepository.findArchivedById(rideId))
+                .orElse(null);
+    }
+
+    private List<RideResponse> loadRequestedRides() {
+        List<RideResponse> rides = rideRepository.findResponsesByStatusOrderByCreatedAtAscIdAsc(RideStatus.REQUESTED);
+        rides.forEach(this::resolvePlaces);
+        return rides;
+    }
+
+    private void checkNearbyQuery(double lat, double lng, double radiusKm, int limit) {
+        if (!GeoUtils.isValidLatitude(lat) || !GeoUtils.isValidLongitude(lng)) {
+            throw new BadRequestException("Latitude must be between -90 and 90 and longitude between -180 and 180");
+        }
+        if (radiusKm <= 0) {
+            throw new BadRequestException("Radius must be greater than 0");
+        }
+        if (limit < 1 || limit > maxNearbyResults) {
+            throw new BadRequestException("Limit must be between 1 and " + maxNearbyResults);
+        }
+    }
+
+    private String violations(CreateRideRequest request) {
+        Set<ConstraintViolation<CreateRideRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private RuntimeException transitionFailure(Ride ride, RideStatus expected, RideStatus target,
+                                               String conflictMessage, String unauthorizedMessage) {
+        if (ride == null) {
+            return new NotFoundException("Ride not found");
+        }
+        if (ride.getStatus() != expected || unauthorizedMessage == null) {
+            rideMetrics.rejected(target);
+            return new ConflictException(conflictMessage);
+        }
+        return new UnauthorizedException(unauthorizedMessage);
+    }
+
+    int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return defaultPageSize;
+        }
+        if (limit < 1 || limit > maxPageSize) {
+            throw new BadRequestException("Limit must be between 1 and " + maxPageSize);
+        }
+        return limit;
+    }
+
+    /**
+     * The first {@code limit} rides of two newest-first pages (hot and archived) in newest-first
+     * order, with a ride present in both counted once.
+     */
+    List<Ride> mergeNewestFirst(List<Ride> hot, List<Ride> archived, int limit) {
+        if (archived.isEmpty()) {
+            return hot;
+        }
+        return SortedMerge.distinct(hot.stream(), archived.stream(), NEWEST_FIRST)
+                .limit(limit)
+                .toList();
+    }
+
+    // rides holds up to pageSize + 1 entries; the extra one only signals that another page exists
+    RidePageResponse toPage(List<Ride> rides, int pageSize) {
+        boolean hasMore = rides.size() > pageSize;
+        List<Ride> page = hasMore ? rides.subList(0, pageSize) : rides;
+        List<RideResponse> items = page.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
+        String nextCursor = hasMore ? RideCursor.after(page.get(page.size() - 1)).encode() : null;
+        return new RidePageResponse(items, nextCursor);
+    }
+
+    // A location as stored on a ride: a place reference, or the text when the dictionary is full
+    private record RidePlace(String placeId, String text, Double lat, Double lng) {
+    }
+
+    // The ride keeps its own coordinates. Only a curated place's stand in for missing ones: texts
+    // like "home" are shared by every rider, so another rider's position must never leak onto a ride
+    private RidePlace ridePlace(String text, Double lat, Double lng) {
+        Optional<Place> place = placeDictionary.intern(text);
+        if (place.isEmpty()) {
+            return new RidePlace(null, text, lat, lng);
+        }
+        Place known = place.get();
+        if (lat == null && lng == null && known.isCurated() && known.getLat() != null && known.getLng() != null) {
+            return new RidePlace(known.getId(), null, known.getLat(), known.getLng());
+        }
+        return new RidePlace(known.getId(), null, lat, lng);
+    }
+
+    private String placeName(String placeId, String text) {
+        if (placeId == null) {
+            return text;
+        }
+        return placeDictionary.find(placeId).map(Place::getName).orElse(text);
+    }
+
+    // rides[i] is the item submitted at positions[i]; results holds the REJECTED items so far
+    record RideBatch(BatchRideResult[] results, List<Ride> rides, List<Integer> positions) {
+    }
+
+    private RideSummaryResponse toSummaryResponse(String userId, RideSummaryIndex.Summary summary) {
+        return RideSummaryResponse.builder()
+                .userId(userId)
+                .requested(summary.requested())
+                .accepted(summary.accepted())
+                .completed(summary.completed())
+                .total(summary.total())
+                .lastRideId(summary.lastRideId())
+                .firstRideAt(summary.firstRideAt())
+                .lastRideAt(summary.lastRideAt())
+                .build();
+    }
+
+    /**
+     * Fills in the location texts of a response read by a projection query, which carries the
+     * rides' place ids rather than their names.
+     */
+    void resolvePlaces(RideResponse response) {
+        response.setPickupLocation(placeName(response.getPickupPlaceId(), response.getPickupLocation()));
+        response.setDropLocation(placeName(response.getDropPlaceId(), response.getDropLocation()));
     }
 
-    private RideResponse mapToResponse(Ride ride) {
+    // Package-private so the JMH benchmarks and ReactiveRideService can use it
+    RideResponse mapToResponse(Ride ride) {
         return RideResponse.builder()
                 .id(ride.getId())
                 .userId(ride.getUserId())
                 .driverId(ride.getDriverId())
-                .pickupLocation(ride.getPickupLocation())
-                .dropLocation(ride.getDropLocation())
+                .pickupLocation(placeName(ride.getPickupPlaceId(), ride.getPickupLocation()))
+                .dropLocation(placeName(ride.getDropPlaceId(), ride.getDropLocation()))
+                .pickupLat(ride.getPickupLat())
+                .pickupLng(ride.getPickupLng())
+                .dropLat(ride.getDropLat())
+                .dropLng(ride.getDropLng())
                 .status(ride.getStatus())
                 .createdAt(ride.getCreatedAt())
                 .build();
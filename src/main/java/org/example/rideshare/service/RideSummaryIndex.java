@@ -0,0 +1,206 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.model.Ride;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Per-rider and per-driver ride summaries, kept in memory and updated by RideService on every
+ * status transition so reading one is a map lookup instead of a scan of the user's rides.
+ *
+ * Counts are by current status: accepting a ride moves it from the rider's {@code requested}
+ * to {@code accepted} and adds it to the driver's {@code accepted}. First and last ride times
+ * are the rides' createdAt. {@link RideSummaryRebuilder} recomputes everything from the rides
+ * collection at startup and on demand.
+ *
+ * A rebuild on a live instance races the transitions it is scanning. Between
+ * {@link #beginRebuild} and {@link #finishRebuild} every transition is still applied to the
+ * current summaries, and the ride's latest state is recorded. The scan reports the status it
+ * read for each ride that was not yet COMPLETED or was changed during the rebuild (see
+ * {@link #isChanging}). At the swap, each recorded ride is moved from the status the scan counted
+ * to its latest one, so no transition is lost or counted twice.
+ */
+@Component
+public class RideSummaryIndex implements MeterBinder {
+
+    public record Summary(long requested, long accepted, long completed,
+                          String lastRideId, Date firstRideAt, Date lastRideAt) {
+
+        public static final Summary EMPTY = new Summary(0, 0, 0, null, null, null);
+
+        public long total() {
+            return requested + accepted + completed;
+        }
+
+        Summary moved(RideStatus from, RideStatus to, Ride ride) {
+            Summary counted = new Summary(
+                    requested + delta(RideStatus.REQUESTED, from, to),
+                    accepted + delta(RideStatus.ACCEPTED, from, to),
+                    completed + delta(RideStatus.COMPLETED, from, to),
+                    lastRideId, firstRideAt, lastRideAt);
+            return counted.merge(new Summary(0, 0, 0, ride.getId(), ride.getCreatedAt(), ride.getCreatedAt()));
+        }
+
+        Summary merge(Summary other) {
+            boolean otherIsLater = other.lastRideAt != null
+                    && (lastRideAt == null || other.lastRideAt.after(lastRideAt));
+            return new Summary(
+                    requested + other.requested,
+                    accepted + other.accepted,
+                    completed + other.completed,
+                    otherIsLater ? other.lastRideId : lastRideId,
+                    firstRideAt == null || (other.firstRideAt != null && other.firstRideAt.before(firstRideAt))
+                            ? other.firstRideAt : firstRideAt,
+                    otherIsLater ? other.lastRideAt : lastRideAt);
+        }
+
+        private static long delta(RideStatus status, RideStatus from, RideStatus to) {
+            return (status == to ? 1 : 0) - (status == from ? 1 : 0);
+        }
+    }
+
+    // latest: the ride as of its last transition during the rebuild; opened: it was created during the rebuild
+    private record Change(Ride latest, boolean opened) {
+    }
+
+    private volatile Map<String, Summary> riders = new ConcurrentHashMap<>();
+    private volatile Map<String, Summary> drivers = new ConcurrentHashMap<>();
+    // Transitions share the read lock; the swap at the end of a rebuild takes the write lock
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Map<String, Change> changes;
+
+    public Summary forRider(String userId) {
+        return riders.getOrDefault(userId, Summary.EMPTY);
+    }
+
+    public Summary forDriver(String driverId) {
+        return drivers.getOrDefault(driverId, Summary.EMPTY);
+    }
+
+    public void opened(Ride ride) {
+        transition(ride, null, RideStatus.REQUESTED);
+    }
+
+    public void accepted(Ride ride) {
+        transition(ride, RideStatus.REQUESTED, RideStatus.ACCEPTED);
+    }
+
+    public void completed(Ride ride) {
+        transition(ride, RideStatus.ACCEPTED, RideStatus.COMPLETED);
+    }
+
+    /**
+     * Starts recording transitions for {@link #finishRebuild}. Call before the rebuild scan.
+     */
+    public void beginRebuild() {
+        swapLock.writeLock().lock();
+        try {
+            if (changes != null) {
+                throw new IllegalStateException("A ride summary rebuild is already running");
+            }
+            changes = new ConcurrentHashMap<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the ride has had a transition since {@link #beginRebuild}; the scan must report
+     * the status it read for such rides even when it is COMPLETED.
+     */
+    public boolean isChanging(String rideId) {
+        Map<String, Change> current = changes;
+        return current != null && current.containsKey(rideId);
+    }
+
+    /**
+     * Swaps in rebuilt summaries, corrected for the transitions recorded since
+     * {@link #beginRebuild}. {@code scanned} holds the status the scan counted for every ride it
+     * read that was not COMPLETED or was changing at the time.
+     */
+    public void finishRebuild(Map<String, Summary> rebuiltRiders, Map<String, Summary> rebuiltDrivers,
+                              Map<String, RideStatus> scanned) {
+        Map<String, Summary> newRiders = new ConcurrentHashMap<>(rebuiltRiders);
+        Map<String, Summary> newDrivers = new ConcurrentHashMap<>(rebuiltDrivers);
+        swapLock.writeLock().lock();
+        try {
+            changes.forEach((rideId, change) -> {
+                // Not reported: unseen if created during the rebuild, otherwise read as COMPLETED
+                RideStatus counted = scanned.containsKey(rideId) ? scanned.get(rideId)
+                        : change.opened() ? null : RideStatus.COMPLETED;
+                apply(newRiders, newDrivers, change.latest(), counted, change.latest().getStatus());
+            });
+            riders = newRiders;
+            drivers = newDrivers;
+        } finally {
+            changes = null;
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    public void abortRebuild() {
+        swapLock.writeLock().lock();
+        try {
+            changes = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rides.summaries", this, index -> index.riders.size())
+                .tag("party", "rider")
+                .description("Riders with a ride summary")
+                .register(registry);
+        Gauge.builder("rides.summaries", this, index -> index.drivers.size())
+                .tag("party", "driver")
+                .description("Drivers with a ride summary")
+                .register(registry);
+    }
+
+    private void transition(Ride ride, RideStatus from, RideStatus to) {
+        swapLock.readLock().lock();
+        try {
+            apply(riders, drivers, ride, from, to);
+            Map<String, Change> current = changes;
+            if (current != null) {
+                current.merge(ride.getId(), new Change(ride, from == null),
+                        (previous, next) -> new Change(ride, previous.opened()));
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // A ride counts for its rider in every status, and for its driver once it has one
+    private static void apply(Map<String, Summary> riders, Map<String, Summary> drivers, Ride ride,
+                              RideStatus from, RideStatus to) {
+        if (from == to) {
+            return;
+        }
+        update(riders, ride.getUserId(), from, to, ride);
+        RideStatus driverFrom = from == RideStatus.REQUESTED ? null : from;
+        RideStatus driverTo = to == RideStatus.REQUESTED ? null : to;
+        if (driverFrom != driverTo) {
+            update(drivers, ride.getDriverId(), driverFrom, driverTo, ride);
+        }
+    }
+
+    private static void update(Map<String, Summary> summaries, String id, RideStatus from, RideStatus to, Ride ride) {
+        if (id == null) {
+            return;
+        }
+        // compute locks only this party's entry, so concurrent transitions for one rider serialize
+        summaries.compute(id, (key, current) -> (current != null ? current : Summary.EMPTY).moved(from, to, ride));
+    }
+}
@@ -0,0 +1,242 @@
+package org.example.rideshare.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.bson.types.ObjectId;
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.repository.RideRepository;
+import org.example.rideshare.service.RideSummaryIndex.Summary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Recomputes {@link RideSummaryIndex} from the rides collection and its archive.
+ *
+ * The ride id range is cut into {@code rides.summaries.rebuild-chunks} slices by ObjectId
+ * timestamp. Each slice is streamed with a projection on its own thread (at most
+ * {@code rides.summaries.rebuild-threads} at once) into a private partial result; the partials
+ * are merged and swapped in at the end, so readers keep seeing the previous summaries until then.
+ * Transitions made while the scan runs are recorded by the index and replayed onto the result
+ * at the swap (see {@link RideSummaryIndex#finishRebuild}).
+ *
+ * A ride the archiver moves between a slice's hot and archive scans is read from both; the hot
+ * copy wins. Only COMPLETED rides the archiver could pick up during the rebuild (older than
+ * {@code rides.archive.min-age} less a day) are remembered for that check.
+ *
+ * Runs once at startup, before the web server accepts requests, and again whenever
+ * {@link #rebuild()} is called.
+ */
+@Component
+public class RideSummaryRebuilder implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(RideSummaryRebuilder.class);
+    // How far the archiver's cutoff may move while one slice is being scanned
+    private static final Duration ARCHIVE_SLACK = Duration.ofDays(1);
+
+    private final RideRepository rideRepository;
+    private final RideSummaryIndex summaryIndex;
+    private final int threads;
+    private final int chunks;
+    private final Duration archiveMinAge;
+    private Timer rebuildTimer;
+    private volatile boolean running;
+
+    public RideSummaryRebuilder(RideRepository rideRepository, RideSummaryIndex summaryIndex,
+                                @Value("${rides.summaries.rebuild-threads:4}") int threads,
+                                @Value("${rides.summaries.rebuild-chunks:32}") int chunks,
+                                @Value("${rides.archive.min-age:30d}") Duration archiveMinAge) {
+        if (threads < 1 || chunks < 1) {
+            throw new IllegalArgumentException("rides.summaries.rebuild-threads and rebuild-chunks must be at least 1");
+        }
+        this.rideRepository = rideRepository;
+        this.summaryIndex = summaryIndex;
+        this.threads = threads;
+        this.chunks = chunks;
+        this.archiveMinAge = archiveMinAge;
+    }
+
+    public record Result(long rides, int riders, int drivers, int chunks, long millis) {
+    }
+
+    public synchronized Result rebuild() {
+        long start = System.nanoTime();
+        List<String> bounds = chunkBounds();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, bounds.size() - 1), runnable -> {
+            Thread thread = new Thread(runnable, "ride-summary-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Partial total = new Partial(summaryIndex);
+        summaryIndex.beginRebuild();
+        try {
+            List<Future<Partial>> partials = new ArrayList<>();
+            for (int i = 0; i < bounds.size() - 1; i++) {
+                String from = bounds.get(i);
+                String to = bounds.get(i + 1);
+                partials.add(pool.submit(() -> scan(from, to)));
+            }
+            for (Future<Partial> partial : partials) {
+                total.merge(partial.get());
+            }
+        } catch (InterruptedException e) {
+            summaryIndex.abortRebuild();
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ride summary rebuild interrupted", e);
+        } catch (ExecutionException e) {
+            summaryIndex.abortRebuild();
+            throw new IllegalStateException("Ride summary rebuild failed", e.getCause());
+        } catch (RuntimeException e) {
+            summaryIndex.abortRebuild();
+            throw e;
+        } finally {
+            pool.shutdownNow();
+        }
+
+        summaryIndex.finishRebuild(total.riders, total.drivers, total.scanned);
+        long elapsed = System.nanoTime() - start;
+        if (rebuildTimer != null) {
+            rebuildTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        }
+        Result result = new Result(total.rides, total.riders.size(), total.drivers.size(),
+                bounds.size() - 1, elapsed / 1_000_000);
+        log.info("Rebuilt ride summaries from {} rides in {} chunks: {} riders, {} drivers, {} ms",
+                result.rides(), result.chunks(), result.riders(), result.drivers(), result.millis());
+        return result;
+    }
+
+    @Override
+    public void start() {
+        rebuild();
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Before the web server starts, so the startup rebuild does not race live transitions
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        rebuildTimer = Timer.builder("rides.summaries.rebuild")
+                .description("Full ride summary rebuilds")
+                .register(registry);
+    }
+
+    private Partial scan(String fromId, String toId) {
+        Partial partial = new Partial(summaryIndex);
+        Date archivable = Date.from(Instant.now().minus(archiveMinAge).plus(ARCHIVE_SLACK));
+        Set<String> archivableHot = new HashSet<>();
+        try (Stream<Ride> rides = rideRepository.streamSummaryFields(fromId, toId)) {
+            rides.forEach(ride -> {
+                if (ride.getStatus() == RideStatus.COMPLETED && ride.getCreatedAt() != null
+                        && ride.getCreatedAt().before(archivable)) {
+                    archivableHot.add(ride.getId());
+                }
+                partial.add(ride);
+            });
+        }
+        try (Stream<Ride> rides = rideRepository.streamArchivedSummaryFields(fromId, toId)) {
+            rides.filter(ride -> !archivableHot.contains(ride.getId())).forEach(partial::add);
+        }
+        return partial;
+    }
+
+    /**
+     * [null, b1, ..., null]: consecutive pairs are the half-open id ranges to scan, spread evenly
+     * from the oldest hot or archived ride to now. Falls back to a single range when the ids are
+     * not ObjectIds.
+     */
+    private List<String> chunkBounds() {
+        List<String> bounds = new ArrayList<>();
+        bounds.add(null);
+        String first = Stream.of(rideRepository.findFirstByOrderByIdAsc().map(Ride::getId),
+                        rideRepository.findOldestArchivedId())
+                .flatMap(Optional::stream)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+        if (chunks > 1 && first != null && ObjectId.isValid(first)) {
+            long from = new ObjectId(first).getTimestamp();
+            long span = new ObjectId().getTimestamp() - from + 1;
+            long previous = from;
+            for (int i = 1; i < chunks; i++) {
+                long timestamp = from + span * i / chunks;
+                if (timestamp > previous) {
+                    // Smallest ObjectId with this timestamp: the timestamp followed by zeros
+                    bounds.add(String.format("%08x%016x", timestamp, 0));
+                    previous = timestamp;
+                }
+            }
+        }
+        bounds.add(null);
+        return bounds;
+    }
+
+    private static final class Partial {
+
+        private final RideSummaryIndex index;
+        private final Map<String, Summary> riders = new HashMap<>();
+        private final Map<String, Summary> drivers = new HashMap<>();
+        // The status counted for each ride that may still change, for RideSummaryIndex#finishRebuild
+        private final Map<String, RideStatus> scanned = new HashMap<>();
+        private long rides;
+
+        Partial(RideSummaryIndex index) {
+            this.index = index;
+        }
+
+        void add(Ride ride) {
+            rides++;
+            if (ride.getStatus() != RideStatus.COMPLETED || index.isChanging(ride.getId())) {
+                scanned.put(ride.getId(), ride.getStatus());
+            }
+            Summary summary = Summary.EMPTY.moved(null, ride.getStatus(), ride);
+            if (ride.getUserId() != null) {
+                riders.merge(ride.getUserId(), summary, Summary::merge);
+            }
+            if (ride.getDriverId() != null) {
+                drivers.merge(ride.getDriverId(), summary, Summary::merge);
+            }
+        }
+
+        void merge(Partial other) {
+            rides += other.rides;
+            scanned.putAll(other.scanned);
+            other.riders.forEach((id, summary) -> riders.merge(id, summary, Summary::merge));
+            other.drivers.forEach((id, summary) -> drivers.merge(id, summary, Summary::merge));
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.rideshare.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.rideshare.repository.RideCounts;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Version counters behind the ETags of {@code GET /user/rides} and
+ * {@code GET /driver/rides/requests}, so a poll whose {@code If-None-Match} is current is answered
+ * with 304 without reading a ride or serializing anything.
+ *
+ * A rider's version changes whenever RideService creates, accepts or completes one of their
+ * rides; the open-ride list uses the version of {@link OpenRideSnapshot}. Versions are drawn from
+ * one sequence and tagged with a random per-process id, so a tag is never reissued for different
+ * content, including across restarts and instances.
+ *
+ * Changes made through another instance do not reach this one's counters, so a rider's version
+ * is only trusted for {@code rides.etag.ttl} (by default {@code rides.snapshot.ttl}, so neither
+ * list is served stale for longer than the other). After that the caller counts the rider's rides
+ * by status ({@link RideCounts}, one aggregation and one count) and the version is kept if the
+ * counts match the previous check, replaced if not. Such changes are seen within the TTL, yet an
+ * unchanged history keeps its tag however long the client polls. A local change has no counts
+ * yet, so the first check after it issues one extra version.
+ */
+@Component
+public class RideVersions implements MeterBinder {
+
+    /**
+     * For tagged responses and their 304s, in place of Spring Security's {@code no-store}: clients
+     * may keep the body (for this user only) but must revalidate it, sending If-None-Match.
+     */
+    public static final CacheControl CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+
+    private final String instance = Long.toUnsignedString(new SecureRandom().nextLong(), 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final long ttlNanos;
+    private final Cache<String, Version> riders;
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder checks = new LongAdder();
+
+    // counts is null after a local change, until the next check
+    private record Version(long value, RideCounts counts, long checkedAtNanos) {
+    }
+
+    public RideVersions(@Value("${rides.etag.ttl:${rides.snapshot.ttl:1s}}") Duration ttl,
+                        @Value("${rides.etag.max-riders:100000}") long maxRiders) {
+        this.ttlNanos = ttl.toNanos();
+        this.riders = Caffeine.newBuilder()
+                .maximumSize(maxRiders)
+                .build();
+    }
+
+    /**
+     * Weak comparison, as If-None-Match requires: {@code W/"x"} matches {@code "x"}.
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The version of a rider's rides if it was set or checked within the TTL; otherwise the caller
+     * counts the rides and passes them to {@link #checked}. Read it before loading the rides, so a
+     * tag never runs ahead of the body it is sent with.
+     */
+    public OptionalLong forRider(String userId) {
+        Version version = riders.getIfPresent(userId);
+        if (version == null || System.nanoTime() - version.checkedAtNanos() >= ttlNanos) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(version.value());
+    }
+
+    /**
+     * The rider's version after counting their rides: the previous one if the counts have not
+     * changed since the last check, a new one otherwise.
+     */
+    public long checked(String userId, RideCounts counts) {
+        checks.increment();
+        long now = System.nanoTime();
+        return riders.asMap().compute(userId, (id, last) -> last != null && counts.equals(last.counts())
+                ? new Version(last.value(), counts, now)
+                : new Version(sequence.incrementAndGet(), counts, now)).value();
+    }
+
+    public void riderChanged(String userId) {
+        if (userId != null) {
+            riders.put(userId, new Version(sequence.incrementAndGet(), null, System.nanoTime()));
+        }
+    }
+
+    /**
+     * A strong ETag for one representation ({@code variant}, e.g. the encoding) of a version.
+     */
+    public String etag(long version, String variant) {
+        return "\"" + instance + "-" + Long.toString(version, 36) + "-" + variant + "\"";
+    }
+
+    public void notModified() {
+        notModified.increment();
+    }
+
+    public long size() {
+        return riders.estimatedSize();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("rides.etag.riders", this, RideVersions::size)
+                .description("Riders with a ride history version on this instance")
+                .register(registry);
+        FunctionCounter.builder("rides.etag.not-modified", notModified, LongAdder::sum)
+                .description("Ride list requests answered with 304 Not Modified")
+                .register(registry);
+        FunctionCounter.builder("rides.etag.checks", checks, LongAdder::sum)
+                .description("Rider versions rechecked against ride counts after the TTL")
+                .register(registry);
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.rideshare.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.rideshare.model.Role;
+import org.example.rideshare.model.User;
+import org.example.rideshare.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded username -> (id, role) cache for the ride hot paths, which only need to know who the
+ * caller is and what they may do.
+ *
+ * Entries expire after {@code users.identity-cache.ttl}; saves through the repository evict
+ * the user immediately (see {@link UserIdentityCacheInvalidator}), so role changes are seen
+ * at once on this instance and within the TTL elsewhere. Unknown usernames are not cached.
+ */
+@Component
+public class UserIdentityCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+    private final Cache<String, UserIdentity> cache;
+
+    public UserIdentityCache(UserRepository userRepository,
+                             @Value("${users.identity-cache.max-size:10000}") long maxSize,
+                             @Value("${users.identity-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Loads a miss through the cache, so concurrent misses share one load, an invalidation racing
+     * the load waits for it and then removes its result, and loads show up in the stats. The load runs under a map bin
+     * monitor: on Java 21 to 23 that pins a virtual thread's carrier for the round trip (reported
+     * by {@link org.example.rideshare.config.VirtualThreadPinningMonitor}); from Java 24 it does not.
+     */
+    public Optional<UserIdentity> find(String username) {
+        return Optional.ofNullable(cache.get(username, this::load));
+    }
+
+    /**
+     * Cache-only lookup for callers that load misses themselves, such as the reactive stack.
+     */
+    public Optional<UserIdentity> findCached(String username) {
+        return Optional.ofNullable(cache.getIfPresent(username));
+    }
+
+    public UserIdentity put(User user) {
+        UserIdentity identity = UserIdentity.of(user);
+        cache.put(user.getUsername(), identity);
+        return identity;
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Hit, miss, load and eviction counts since startup.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users.identity");
+    }
+
+    private UserIdentity load(String username) {
+        return userRepository.findByUsername(username)
+                .map(UserIdentity::of)
+                .orElse(null);
+    }
+
+    public record UserIdentity(String id, String username, Role role) {
+
+        static UserIdentity of(User user) {
+            return new UserIdentity(user.getId(), user.getUsername(), user.getRole());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.model.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.core.mapping.event.AbstractMongoEventListener;
+import org.springframework.data.mongodb.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.mongodb.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts cached identities whenever a user document is saved or deleted through Spring Data,
+ * which covers role changes made anywhere in the application.
+ */
+@Component
+public class UserIdentityCacheInvalidator extends AbstractMongoEventListener<User> {
+
+    @Autowired
+    private UserIdentityCache userIdentityCache;
+
+    @Override
+    public void onAfterSave(AfterSaveEvent<User> event) {
+        userIdentityCache.invalidate(event.getSource().getUsername());
+    }
+
+    @Override
+    public void onAfterDelete(AfterDeleteEvent<User> event) {
+        // Delete events only carry the query, not the username
+        userIdentityCache.invalidateAll();
+    }
+}
@@ -0,0 +1,37 @@
+package org.example.rideshare.util;
+
+import org.example.rideshare.exception.BadRequestException;
+import org.example.rideshare.model.Ride;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Keyset position in a ride listing: the (createdAt, id) of the last ride on a page.
+ * Clients only ever see the opaque base64url form produced by {@link #encode()}.
+ */
+public record RideCursor(Date createdAt, String id) {
+
+    public static RideCursor after(Ride ride) {
+        return new RideCursor(ride.getCreatedAt(), ride.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt.getTime() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RideCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new BadRequestException("Invalid cursor");
+            }
+            return new RideCursor(new Date(Long.parseLong(raw.substring(0, separator))), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+}
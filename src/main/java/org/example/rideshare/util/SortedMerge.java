@@ -0,0 +1,82 @@
+package org.example.rideshare.util;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Merges two streams that are each sorted by the same order into one sorted stream.
+ *
+ * Elements that compare equal to the one just emitted are dropped, so with an order that ends
+ * on a unique key (createdAt, then id) a ride present in both inputs comes out once. Elements
+ * are pulled lazily and must not be null; closing the result closes both inputs.
+ */
+public final class SortedMerge {
+
+    private SortedMerge() {
+    }
+
+    public static <T> Stream<T> distinct(Stream<T> first, Stream<T> second, Comparator<? super T> order) {
+        Iterator<T> merged = new MergingIterator<>(first.iterator(), second.iterator(), order);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED), false)
+                .onClose(first::close)
+                .onClose(second::close);
+    }
+
+    private static final class MergingIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> first;
+        private final Iterator<T> second;
+        private final Comparator<? super T> order;
+        private T firstHead;
+        private T secondHead;
+        private T last;
+
+        MergingIterator(Iterator<T> first, Iterator<T> second, Comparator<? super T> order) {
+            this.first = first;
+            this.second = second;
+            this.order = order;
+        }
+
+        @Override
+        public boolean hasNext() {
+            fill();
+            return firstHead != null || secondHead != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int comparison = firstHead == null ? 1 : secondHead == null ? -1 : order.compare(firstHead, secondHead);
+            T next = comparison <= 0 ? firstHead : secondHead;
+            if (comparison <= 0) {
+                firstHead = null;
+            }
+            if (comparison >= 0) {
+                // Equal heads are the same element: consume both
+                secondHead = null;
+            }
+            last = next;
+            return next;
+        }
+
+        private void fill() {
+            while (firstHead == null && first.hasNext()) {
+                firstHead = unlessRepeat(first.next());
+            }
+            while (secondHead == null && second.hasNext()) {
+                secondHead = unlessRepeat(second.next());
+            }
+        }
+
+        private T unlessRepeat(T candidate) {
+            return last != null && order.compare(candidate, last) == 0 ? null : candidate;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.rideshare.controller;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RideResponseWriterTest {
+
+    private final ObjectMapper mapper = JsonMapper.builder().build();
+    private final RideResponseWriter writer = new RideResponseWriter(mapper);
+    private final RideResponse ride = RideResponse.builder()
+            .id("r1")
+            .userId("rider")
+            .pickupLocation("Airport")
+            .pickupLat(12.9)
+            .pickupLng(77.5)
+            .status(RideStatus.REQUESTED)
+            .createdAt(new Date())
+            .pickupPlaceId("p1")
+            .build();
+
+    @Test
+    void everySerializedPropertyCanBeProjected() {
+        JsonNode full = mapper.readTree(mapper.writeValueAsBytes(ride));
+        String all = String.join(",", full.propertyNames());
+
+        JsonNode projected = read(writer.write(List.of(ride), writer.format(all, null))).get(0);
+
+        assertThat(projected).isEqualTo(full);
+    }
+
+    @Test
+    void projectsInTheOrderOfAFullResponse() {
+        JsonNode projected = read(writer.write(List.of(ride), writer.format("status, id,pickupLat", null))).get(0);
+
+        assertThat(projected.propertyNames()).containsExactly("id", "pickupLat", "status");
+        assertThat(projected.get("pickupLat").asDouble()).isEqualTo(12.9);
+    }
+
+    @Test
+    void rejectsIgnoredProperties() {
+        assertThatThrownBy(() -> writer.format("id,pickupPlaceId", null))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("pickupPlaceId");
+    }
+
+    private JsonNode read(byte[] json) {
+        return mapper.readTree(json);
+    }
+}
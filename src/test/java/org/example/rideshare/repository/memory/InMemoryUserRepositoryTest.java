@@ -0,0 +1,109 @@
+package org.example.rideshare.repository.memory;
+
+import org.example.rideshare.model.Role;
+import org.example.rideshare.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.repository.query.FluentQuery;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryUserRepositoryTest {
+
+    private final InMemoryUserRepository repository = new InMemoryUserRepository();
+
+    @Test
+    void renamingAUserDropsTheOldUsername() {
+        User user = repository.save(user("alice", Role.ROLE_USER));
+
+        user.setUsername("alicia");
+        repository.save(user);
+
+        assertThat(repository.findByUsername("alice")).isEmpty();
+        assertThat(repository.findByUsername("alicia")).contains(user);
+    }
+
+    @Test
+    void renamingKeepsAUsernameTakenByAnotherUser() {
+        User first = repository.save(user("sam", Role.ROLE_USER));
+        first.setUsername("samuel");
+        repository.save(first);
+        User second = repository.save(user("sam", Role.ROLE_DRIVER));
+
+        first.setUsername("sammy");
+        repository.save(first);
+
+        assertThat(repository.findByUsername("sam")).contains(second);
+        assertThat(repository.findByUsername("samuel")).isEmpty();
+    }
+
+    @Test
+    void deleteRemovesTheUsername() {
+        User user = repository.save(user("bob", Role.ROLE_USER));
+
+        repository.delete(user);
+
+        assertThat(repository.findByUsername("bob")).isEmpty();
+    }
+
+    @Test
+    void updatesThePasswordOnlyWhileItIsUnchanged() {
+        User user = repository.save(user("ivan", Role.ROLE_USER));
+
+        boolean upgraded = repository.updatePasswordIfUnchanged(user.getId(), "hash", "stronger");
+        boolean stale = repository.updatePasswordIfUnchanged(user.getId(), "hash", "other");
+
+        assertThat(upgraded).isTrue();
+        assertThat(stale).isFalse();
+        assertThat(repository.findByUsername("ivan")).map(User::getPassword).contains("stronger");
+        assertThat(repository.findByUsername("ivan")).map(User::getRole).contains(Role.ROLE_USER);
+    }
+
+    @Test
+    void findsByExampleAndSorts() {
+        repository.save(user("carol", Role.ROLE_DRIVER));
+        repository.save(user("dave", Role.ROLE_USER));
+        repository.save(user("erin", Role.ROLE_DRIVER));
+
+        List<User> drivers = repository.findAll(Example.of(User.builder().role(Role.ROLE_DRIVER).build()),
+                Sort.by(Sort.Direction.DESC, "username"));
+
+        assertThat(drivers).extracting(User::getUsername).containsExactly("erin", "carol");
+        assertThat(repository.count(Example.of(User.builder().username("DA").build(),
+                ExampleMatcher.matching().withIgnoreCase().withStringMatcher(ExampleMatcher.StringMatcher.STARTING))))
+                .isEqualTo(1);
+        assertThat(repository.findAll(Sort.by("username"))).extracting(User::getUsername)
+                .containsExactly("carol", "dave", "erin");
+    }
+
+    @Test
+    void fluentQueriesPageAndProject() {
+        repository.save(user("frank", Role.ROLE_USER));
+        repository.save(user("grace", Role.ROLE_USER));
+        repository.save(user("heidi", Role.ROLE_USER));
+        Example<User> riders = Example.of(User.builder().role(Role.ROLE_USER).build());
+
+        Page<User> secondPage = repository.findBy(riders, query -> query.sortBy(Sort.by("username"))
+                .page(PageRequest.of(1, 2)));
+        List<User> projected = repository.findBy(riders, query -> query.sortBy(Sort.by("username"))
+                .project("username")
+                .all());
+        long count = repository.findBy(riders, FluentQuery.FetchableFluentQuery::count);
+
+        assertThat(secondPage.getContent()).extracting(User::getUsername).containsExactly("heidi");
+        assertThat(secondPage.getTotalElements()).isEqualTo(3);
+        assertThat(projected).extracting(User::getUsername).containsExactly("frank", "grace", "heidi");
+        assertThat(projected).extracting(User::getPassword).containsOnlyNulls();
+        assertThat(count).isEqualTo(3);
+    }
+
+    private static User user(String username, Role role) {
+        return User.builder().username(username).password("hash").role(role).build();
+    }
+}
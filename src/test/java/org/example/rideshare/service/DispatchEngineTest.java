@@ -0,0 +1,190 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.exception.ConflictException;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.Role;
+import org.example.rideshare.repository.memory.InMemoryDriverLocationRepository;
+import org.example.rideshare.repository.memory.InMemoryRideRepository;
+import org.example.rideshare.repository.memory.InMemoryUserRepository;
+import org.example.rideshare.service.UserIdentityCache.UserIdentity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DispatchEngineTest {
+
+    private final InMemoryRideRepository rides = new InMemoryRideRepository();
+    private final OpenRideGeoIndex openRides = new OpenRideGeoIndex(0.01);
+    private final DispatchAssignments assignments = new DispatchAssignments();
+    private final RideService rideService = mock(RideService.class);
+    private final DispatchEngine engine = new DispatchEngine(rideService, openRides,
+            new UserIdentityCache(new InMemoryUserRepository(), 100, Duration.ofMinutes(5)),
+            new DriverLocationStore(new InMemoryDriverLocationRepository(), 64, Duration.ofSeconds(5), 100,
+                    Duration.ofMinutes(2)),
+            assignments, true, Duration.ofSeconds(1), Duration.ofMinutes(1), 5, 8, 4, 0.01);
+
+    DispatchEngineTest() {
+        // The real conditional accept, without the rest of RideService
+        when(rideService.assign(anyString(), any())).thenAnswer(invocation -> {
+            String rideId = invocation.getArgument(0);
+            UserIdentity driver = invocation.getArgument(1);
+            return rides.acceptIfRequested(rideId, driver.id())
+                    .map(ride -> RideResponse.builder().id(ride.getId()).driverId(ride.getDriverId()).build());
+        });
+        when(rideService.acceptRide(anyString(), anyString())).thenAnswer(invocation -> {
+            String rideId = invocation.getArgument(0);
+            String username = invocation.getArgument(1);
+            return rides.acceptIfRequested(rideId, username)
+                    .map(ride -> RideResponse.builder().id(ride.getId()).driverId(ride.getDriverId()).build())
+                    .orElseThrow(() -> new ConflictException("Ride is no longer available"));
+        });
+    }
+
+    @AfterEach
+    void stop() {
+        engine.stop();
+        engine.shutdown();
+    }
+
+    @Test
+    void dispatchAndManualAcceptsRacingForTheSameRidesAssignEachOnce() throws Exception {
+        List<String> rideIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rideIds.add(open(12.9 + i * 0.001, 77.5).getId());
+            engine.makeAvailable(driver("d" + i), 12.9 + i * 0.001, 77.5);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            Future<Integer> window = pool.submit(() -> {
+                go.await();
+                return engine.dispatchWindow();
+            });
+            List<Future<Boolean>> manual = new ArrayList<>();
+            for (String rideId : rideIds) {
+                manual.add(pool.submit(() -> {
+                    go.await();
+                    try {
+                        rideService.acceptRide(rideId, "manual");
+                        return true;
+                    } catch (ConflictException e) {
+                        return false;
+                    }
+                }));
+            }
+            go.countDown();
+
+            int dispatched = window.get(10, TimeUnit.SECONDS);
+            int accepted = 0;
+            for (Future<Boolean> accept : manual) {
+                accepted += accept.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+
+            assertThat(dispatched + accepted).isEqualTo(rideIds.size());
+            assertThat(rideIds).allSatisfy(id ->
+                    assertThat(rides.findById(id)).map(Ride::getStatus).contains(RideStatus.ACCEPTED));
+            int assigned = 0;
+            for (int i = 0; i < 20; i++) {
+                Optional<RideResponse> assignment = engine.assignmentFor(driver("d" + i));
+                if (assignment.isPresent()) {
+                    assigned++;
+                    assertThat(rides.findById(assignment.get().getId())).map(Ride::getDriverId).contains("d" + i);
+                }
+            }
+            assertThat(assigned).isEqualTo(dispatched);
+            // Drivers whose match was taken by hand wait for the next window
+            assertThat(engine.availableDrivers()).isEqualTo(20 - dispatched);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void dispatchesAfterTheLifecycleIsRestarted() {
+        engine.start();
+        engine.stop();
+        engine.start();
+        open(12.9, 77.5);
+        engine.makeAvailable(driver("d1"), 12.9, 77.5);
+
+        assertThat(engine.dispatchWindow()).isEqualTo(1);
+    }
+
+    @Test
+    void assignsEveryMatchOfAWindow() {
+        List<String> rideIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            rideIds.add(open(12.9 + i * 0.001, 77.5).getId());
+            engine.makeAvailable(driver("d" + i), 12.9 + i * 0.001, 77.5);
+        }
+
+        assertThat(engine.dispatchWindow()).isEqualTo(6);
+
+        assertThat(engine.availableDrivers()).isZero();
+        assertThat(rideIds).allSatisfy(id ->
+                assertThat(rides.findById(id)).map(Ride::getStatus).contains(RideStatus.ACCEPTED));
+        for (int i = 0; i < 6; i++) {
+            assertThat(engine.assignmentFor(driver("d" + i))).isPresent();
+        }
+    }
+
+    @Test
+    void aMatchLostToAManualAcceptKeepsTheDriverAvailable() {
+        Ride ride = open(12.9, 77.5);
+        engine.makeAvailable(driver("d1"), 12.9, 77.5);
+        // Accepted by hand after the open-ride snapshot the window matches on
+        rides.acceptIfRequested(ride.getId(), "someone-else");
+
+        assertThat(engine.dispatchWindow()).isZero();
+
+        assertThat(engine.availableDrivers()).isEqualTo(1);
+        assertThat(engine.assignmentFor(driver("d1"))).isEmpty();
+        assertThat(rides.findById(ride.getId())).map(Ride::getDriverId).contains("someone-else");
+    }
+
+    @Test
+    void completingTheRideClearsTheAssignment() {
+        Ride ride = open(12.9, 77.5);
+        engine.makeAvailable(driver("d1"), 12.9, 77.5);
+        engine.dispatchWindow();
+
+        Ride completed = rides.completeIfAccepted(ride.getId(), ride.getUserId()).orElseThrow();
+        assignments.rideCompleted(completed);
+
+        assertThat(engine.assignmentFor(driver("d1"))).isEmpty();
+    }
+
+    private Ride open(double lat, double lng) {
+        Ride ride = rides.save(Ride.builder()
+                .userId("rider")
+                .pickupLat(lat)
+                .pickupLng(lng)
+                .status(RideStatus.REQUESTED)
+                .createdAt(new Date())
+                .build());
+        openRides.add(ride);
+        return ride;
+    }
+
+    private static UserIdentity driver(String id) {
+        return new UserIdentity(id, id, Role.ROLE_DRIVER);
+    }
+}
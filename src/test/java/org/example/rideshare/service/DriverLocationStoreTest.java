@@ -0,0 +1,111 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.model.DriverLocation;
+import org.example.rideshare.repository.memory.InMemoryDriverLocationRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DriverLocationStoreTest {
+
+    private final FailingDriverLocationRepository repository = new FailingDriverLocationRepository();
+    private final DriverLocationStore store =
+            new DriverLocationStore(repository, 16, Duration.ofSeconds(5), 4, Duration.ofMinutes(2));
+
+    @Test
+    void flushWritesEachChangedPositionOnce() {
+        store.update("d1", 12.9, 77.5);
+        store.update("d1", 12.91, 77.51);
+        store.update("d2", 13.0, 77.6);
+
+        assertThat(store.flush()).isEqualTo(2);
+        assertThat(store.flush()).isZero();
+        assertThat(repository.findById("d1")).map(DriverLocation::getLat).contains(12.91);
+    }
+
+    @Test
+    void retriesPositionsThatFailedInsideABatch() {
+        store.update("d1", 12.9, 77.5);
+        store.update("d2", 13.0, 77.6);
+        store.update("d3", 13.1, 77.7);
+        repository.failing.add("d2");
+
+        assertThat(store.flush()).isEqualTo(2);
+        assertThat(repository.findById("d2")).isEmpty();
+
+        repository.failing.clear();
+        assertThat(store.flush()).isEqualTo(1);
+        assertThat(repository.findById("d2")).map(DriverLocation::getLat).contains(13.0);
+        assertThat(store.flush()).isZero();
+    }
+
+    @Test
+    void retriesABatchWhoseWriteThrew() {
+        store.update("d1", 12.9, 77.5);
+        repository.down = true;
+
+        assertThatThrownBy(store::flush).isInstanceOf(IllegalStateException.class);
+
+        repository.down = false;
+        assertThat(store.flush()).isEqualTo(1);
+        assertThat(repository.findById("d1")).isPresent();
+    }
+
+    @Test
+    void aRetryWritesThePingThatArrivedSinceTheFailure() {
+        store.update("d1", 12.9, 77.5);
+        repository.failing.add("d1");
+        store.flush();
+
+        store.update("d1", 12.95, 77.55);
+        repository.failing.clear();
+
+        assertThat(store.flush()).isEqualTo(1);
+        assertThat(repository.findById("d1")).map(DriverLocation::getLat).contains(12.95);
+    }
+
+    @Test
+    void nearbyIsNearestFirst() {
+        store.update("far", 12.95, 77.5);
+        store.update("near", 12.901, 77.5);
+
+        List<DriverLocationStore.Position> nearby = store.findNearby(12.9, 77.5, 10_000, 5);
+
+        assertThat(nearby).extracting(DriverLocationStore.Position::driverId).containsExactly("near", "far");
+    }
+
+    /**
+     * Fails the positions of the drivers in {@code failing} the way a partial bulk write does,
+     * or the whole call while {@code down}.
+     */
+    private static final class FailingDriverLocationRepository extends InMemoryDriverLocationRepository {
+
+        private final Set<String> failing = new HashSet<>();
+        private boolean down;
+
+        @Override
+        public Map<Integer, String> upsertLatest(List<DriverLocation> locations) {
+            if (down) {
+                throw new IllegalStateException("Connection refused");
+            }
+            Map<Integer, String> failures = new HashMap<>();
+            for (int i = 0; i < locations.size(); i++) {
+                DriverLocation location = locations.get(i);
+                if (failing.contains(location.getDriverId())) {
+                    failures.put(i, "write failed");
+                } else {
+                    super.upsertLatest(List.of(location));
+                }
+            }
+            return failures;
+        }
+    }
+}
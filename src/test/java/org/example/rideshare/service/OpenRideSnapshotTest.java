@@ -0,0 +1,64 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.repository.memory.InMemoryRideRepository;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OpenRideSnapshotTest {
+
+    private final InMemoryRideRepository rides = new InMemoryRideRepository();
+    // Expired on every read, so each one reloads
+    private final OpenRideSnapshot snapshot = new OpenRideSnapshot(JsonMapper.builder().build(), Duration.ZERO);
+    private final Supplier<List<RideResponse>> loader =
+            () -> rides.findResponsesByStatusOrderByCreatedAtAscIdAsc(RideStatus.REQUESTED);
+
+    @Test
+    void listsRidesOldestFirst() {
+        Instant now = Instant.now();
+        String newest = open(now).getId();
+        String oldest = open(now.minusSeconds(60)).getId();
+        String middle = open(now.minusSeconds(30)).getId();
+
+        assertThat(snapshot.rides(loader)).extracting(RideResponse::getId).containsExactly(oldest, middle, newest);
+    }
+
+    @Test
+    void replaysPatchesMadeDuringAReload() {
+        Instant now = Instant.now();
+        String first = open(now.minusSeconds(60)).getId();
+        String accepted = open(now.minusSeconds(30)).getId();
+        Ride[] opened = new Ride[1];
+
+        // The loader's result misses both patches: it still lists the accepted ride, not the new one
+        List<RideResponse> result = snapshot.rides(() -> {
+            List<RideResponse> read = loader.get();
+            rides.acceptIfRequested(accepted, "driver");
+            snapshot.closed(accepted);
+            opened[0] = open(now);
+            snapshot.opened(RideResponse.builder().id(opened[0].getId()).status(RideStatus.REQUESTED).build());
+            return read;
+        });
+
+        assertThat(result).extracting(RideResponse::getId).containsExactly(first, opened[0].getId());
+        assertThat(new String(snapshot.json(loader))).doesNotContain(accepted).contains(opened[0].getId());
+    }
+
+    private Ride open(Instant createdAt) {
+        return rides.save(Ride.builder()
+                .userId("rider")
+                .status(RideStatus.REQUESTED)
+                .createdAt(Date.from(createdAt))
+                .build());
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.RideEvent;
+import org.example.rideshare.repository.memory.InMemoryRideEventRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RideEventLogTest {
+
+    private final FailingRideEventRepository events = new FailingRideEventRepository();
+
+    @Test
+    void writersOnTwoInstancesNeverReuseASequence() {
+        events.save(RideEvent.builder().sequence(7).rideId("before").status(RideStatus.REQUESTED).build());
+        RideEventLog first = log();
+        RideEventLog second = log();
+        first.start();
+        second.start();
+
+        for (int i = 0; i < 1000; i++) {
+            first.append(ride("a" + i));
+            second.append(ride("b" + i));
+        }
+        first.stop();
+        second.stop();
+
+        List<RideEvent> written = events.findAll();
+        assertThat(written).hasSize(2001);
+        assertThat(written).extracting(RideEvent::getSequence).doesNotHaveDuplicates().allMatch(sequence -> sequence > 0);
+    }
+
+    @Test
+    void keepsEveryEventOfABatchThatFailedPartWay() throws InterruptedException {
+        RideEventLog log = log();
+        events.failNextInsertAfter(3);
+        // Queued before the writer starts, so they go out as one batch
+        for (int i = 0; i < 8; i++) {
+            log.append(ride("r" + i));
+        }
+
+        log.start();
+        // The retry comes after a one second backoff
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (events.count() < 8 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        log.stop();
+
+        assertThat(events.findAll()).extracting(RideEvent::getRideId)
+                .containsExactlyInAnyOrder("r0", "r1", "r2", "r3", "r4", "r5", "r6", "r7");
+    }
+
+    private RideEventLog log() {
+        return new RideEventLog(events, 10_000, 50, Duration.ofMillis(1));
+    }
+
+    private static Ride ride(String id) {
+        return Ride.builder().id(id).userId("rider").status(RideStatus.REQUESTED).createdAt(new Date()).build();
+    }
+
+    /**
+     * Stores only the first {@code n} events of the next insert and then throws, like an ordered
+     * insert that fails part way.
+     */
+    private static final class FailingRideEventRepository extends InMemoryRideEventRepository {
+
+        private final AtomicBoolean failNext = new AtomicBoolean();
+        private volatile int storedBeforeFailure;
+
+        void failNextInsertAfter(int n) {
+            storedBeforeFailure = n;
+            failNext.set(true);
+        }
+
+        @Override
+        public <S extends RideEvent> List<S> insert(Iterable<S> entities) {
+            if (!failNext.compareAndSet(true, false)) {
+                return super.insert(entities);
+            }
+            int stored = 0;
+            for (S event : entities) {
+                if (stored++ == storedBeforeFailure) {
+                    throw new IllegalStateException("Connection reset");
+                }
+                save(event);
+            }
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.dto.RideResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class RideFeedTest {
+
+    // One delivery thread and one queued drain
+    private final RideFeed feed = new RideFeed(4, 1, 1);
+    private final CountDownLatch unstall = new CountDownLatch(1);
+
+    @AfterEach
+    void stop() {
+        unstall.countDown();
+        feed.shutdown();
+    }
+
+    @Test
+    void coalescesARideOpenedAndClosedBeforeDelivery() {
+        List<RideFeed.Event> received = new CopyOnWriteArrayList<>();
+        AtomicBoolean ready = new AtomicBoolean();
+        RideFeed.Subscriber subscriber = feed.subscribe(new RideFeed.Delivery() {
+            @Override
+            public void deliver(RideFeed.Event event) {
+                received.add(event);
+            }
+
+            @Override
+            public boolean ready() {
+                return ready.get();
+            }
+        }, Runnable::run);
+
+        feed.opened(ride("r1"));
+        feed.opened(ride("r2"));
+        feed.closed("r1");
+        ready.set(true);
+        subscriber.requestDrain();
+
+        assertThat(received).extracting(RideFeed.Event::type, RideFeed.Event::rideId)
+                .containsExactly(tuple(RideFeed.EventType.OPENED, "r2"));
+    }
+
+    @Test
+    void disconnectsSubscribersTheFullDeliveryPoolRejects() throws Exception {
+        CountDownLatch disconnected = new CountDownLatch(1);
+        // The first drain holds the only delivery thread, the second the only queue slot
+        for (int i = 0; i < 3; i++) {
+            feed.subscribe(new RideFeed.Delivery() {
+                @Override
+                public void deliver(RideFeed.Event event) throws InterruptedException {
+                    unstall.await();
+                }
+
+                @Override
+                public void disconnected() {
+                    disconnected.countDown();
+                }
+            }, feed.blockingDeliveryExecutor());
+        }
+
+        feed.opened(ride("r1"));
+
+        assertThat(disconnected.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(feed.subscriberCount()).isEqualTo(2);
+    }
+
+    private static RideResponse ride(String id) {
+        return RideResponse.builder().id(id).build();
+    }
+}
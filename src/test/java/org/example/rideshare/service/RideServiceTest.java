@@ -0,0 +1,118 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.dto.RideResponse;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.model.Role;
+import org.example.rideshare.model.User;
+import org.example.rideshare.repository.memory.InMemoryRideRepository;
+import org.example.rideshare.repository.memory.InMemoryUserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RideServiceTest {
+
+    private final InMemoryUserRepository users = new InMemoryUserRepository();
+    private final CountingRideRepository rides = new CountingRideRepository();
+    private final RideService rideService = new RideService();
+    private final String riderId;
+
+    RideServiceTest() {
+        ReflectionTestUtils.setField(rideService, "rideRepository", rides);
+        ReflectionTestUtils.setField(rideService, "userIdentityCache",
+                new UserIdentityCache(users, 100, Duration.ofMinutes(5)));
+        // Expired at once, so every read rechecks the ride counts
+        ReflectionTestUtils.setField(rideService, "rideVersions", new RideVersions(Duration.ZERO, 100));
+        riderId = users.save(User.builder().username("rider").password("x").role(Role.ROLE_USER).build()).getId();
+    }
+
+    @Test
+    void streamingUserRidesPullsFromTheCursorsLazily() {
+        List<RideResponse> first;
+        try (Stream<RideResponse> stream = rideService.streamUserRides("rider")) {
+            first = stream.limit(3).toList();
+        }
+
+        assertThat(first).hasSize(3);
+        // A buffered cursor would have read all of them before the first ride was returned
+        assertThat(rides.pulled.sum()).isLessThan(10);
+    }
+
+    @Test
+    void archivingKeepsTheOrderOfUserRides() {
+        Instant now = Instant.now();
+        String oldest = ride(now.minus(Duration.ofDays(60))).getId();
+        String newest = ride(now).getId();
+        String middle = ride(now.minus(Duration.ofDays(40))).getId();
+        List<String> before = rideService.getUserRides("rider").stream().map(RideResponse::getId).toList();
+
+        rides.archiveCompleted(Date.from(now.minus(Duration.ofDays(30))), 10);
+
+        assertThat(before).containsExactly(newest, middle, oldest);
+        assertThat(rideService.getUserRides("rider")).extracting(RideResponse::getId).isEqualTo(before);
+        assertThat(rides.findArchivedById(oldest)).isPresent();
+    }
+
+    @Test
+    void userRidesVersionHoldsUntilTheRidesChange() {
+        Instant now = Instant.now();
+        ride(now.minus(Duration.ofDays(60)));
+        long version = rideService.getUserRidesVersion("rider");
+
+        assertThat(rideService.getUserRidesVersion("rider")).isEqualTo(version);
+        rides.archiveCompleted(Date.from(now.minus(Duration.ofDays(30))), 10);
+        assertThat(rideService.getUserRidesVersion("rider")).isEqualTo(version);
+
+        // Written by another instance, so no local change was recorded
+        rides.save(Ride.builder().userId(riderId).status(RideStatus.REQUESTED).createdAt(new Date()).build());
+        assertThat(rideService.getUserRidesVersion("rider")).isNotEqualTo(version);
+    }
+
+    private Ride ride(Instant createdAt) {
+        return rides.save(Ride.builder()
+                .userId(riderId)
+                .status(RideStatus.COMPLETED)
+                .createdAt(Date.from(createdAt))
+                .build());
+    }
+
+    /**
+     * Hot and archived cursors of a million rides each, newest first, counting the rides read.
+     */
+    private final class CountingRideRepository extends InMemoryRideRepository {
+
+        private final LongAdder pulled = new LongAdder();
+
+        @Override
+        public Stream<Ride> streamByUserIdOrderByCreatedAtDescIdDesc(String userId) {
+            return cursor("hot", 0);
+        }
+
+        @Override
+        public Stream<Ride> streamArchivedByUserId(String userId) {
+            return cursor("archived", 1);
+        }
+
+        private Stream<Ride> cursor(String prefix, int offset) {
+            Instant newest = Instant.now();
+            return Stream.iterate(0, i -> i + 1)
+                    .limit(1_000_000)
+                    .peek(i -> pulled.increment())
+                    .map(i -> Ride.builder()
+                            .id(prefix + "-" + i)
+                            .userId(riderId)
+                            .status(RideStatus.COMPLETED)
+                            .createdAt(Date.from(newest.minusSeconds(2L * i + offset)))
+                            .build());
+        }
+    }
+}
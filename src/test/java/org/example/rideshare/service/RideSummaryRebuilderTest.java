@@ -0,0 +1,134 @@
+package org.example.rideshare.service;
+
+import org.example.rideshare.RideStatus;
+import org.example.rideshare.model.Ride;
+import org.example.rideshare.repository.memory.InMemoryRideRepository;
+import org.example.rideshare.service.RideSummaryIndex.Summary;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RideSummaryRebuilderTest {
+
+    private final RideSummaryIndex index = new RideSummaryIndex();
+    private final PausingRideRepository rides = new PausingRideRepository();
+    private final RideSummaryRebuilder rebuilder = new RideSummaryRebuilder(rides, index, 1, 1, Duration.ofDays(30));
+
+    @Test
+    void rebuildCountsEveryRideByStatus() {
+        open("rider");
+        accept(open("rider"), "driver");
+        complete(accept(open("rider"), "driver"));
+
+        rebuilder.rebuild();
+
+        assertThat(index.forRider("rider")).extracting(Summary::requested, Summary::accepted, Summary::completed)
+                .containsExactly(1L, 1L, 1L);
+        assertThat(index.forDriver("driver")).extracting(Summary::requested, Summary::accepted, Summary::completed)
+                .containsExactly(0L, 1L, 1L);
+    }
+
+    @Test
+    void keepsTransitionsMadeWhileTheScanRuns() {
+        Ride acceptedDuringScan = open("rider");
+        Ride completedDuringScan = open("rider");
+        Ride finishedDuringScan = accept(open("rider"), "driver");
+        rides.duringScan = () -> {
+            accept(acceptedDuringScan, "driver");
+            complete(accept(completedDuringScan, "driver"));
+            complete(finishedDuringScan);
+            open("rider");
+        };
+
+        rebuilder.rebuild();
+
+        assertThat(index.forRider("rider")).extracting(Summary::requested, Summary::accepted, Summary::completed)
+                .containsExactly(1L, 1L, 2L);
+        assertThat(index.forDriver("driver")).extracting(Summary::requested, Summary::accepted, Summary::completed)
+                .containsExactly(0L, 1L, 2L);
+    }
+
+    @Test
+    void keepsTransitionsOfRidesTheScanReadAfterThem() {
+        Ride ride = open("rider");
+        rides.beforeScan = () -> complete(accept(ride, "driver"));
+
+        rebuilder.rebuild();
+
+        assertThat(index.forRider("rider")).extracting(Summary::requested, Summary::accepted, Summary::completed)
+                .containsExactly(0L, 0L, 1L);
+        assertThat(index.forDriver("driver").completed()).isEqualTo(1);
+    }
+
+    @Test
+    void countsARideCaughtMidArchiveOnce() {
+        Ride old = complete(accept(open("rider", Date.from(Instant.now().minus(Duration.ofDays(40)))), "driver"));
+        // Archived after the hot scan read it, before the archive scan
+        rides.duringScan = () -> rides.archiveCompleted(Date.from(Instant.now().minus(Duration.ofDays(30))), 10);
+
+        rebuilder.rebuild();
+
+        assertThat(rides.findArchivedById(old.getId())).isPresent();
+        assertThat(index.forRider("rider").completed()).isEqualTo(1);
+        assertThat(index.forDriver("driver").completed()).isEqualTo(1);
+    }
+
+    @Test
+    void transitionsAfterARebuildApplyToTheNewSummaries() {
+        Ride ride = open("rider");
+        rebuilder.rebuild();
+
+        accept(ride, "driver");
+
+        assertThat(index.forRider("rider").accepted()).isEqualTo(1);
+        assertThat(index.forDriver("driver").accepted()).isEqualTo(1);
+    }
+
+    // Mirrors RideService: the repository write first, then the index
+    private Ride open(String userId) {
+        return open(userId, new Date());
+    }
+
+    private Ride open(String userId, Date createdAt) {
+        Ride ride = rides.save(Ride.builder().userId(userId).status(RideStatus.REQUESTED).createdAt(createdAt).build());
+        index.opened(ride);
+        return ride;
+    }
+
+    private Ride accept(Ride ride, String driverId) {
+        Ride accepted = rides.acceptIfRequested(ride.getId(), driverId).orElseThrow();
+        index.accepted(accepted);
+        return accepted;
+    }
+
+    private Ride complete(Ride ride) {
+        Ride completed = rides.completeIfAccepted(ride.getId(), ride.getUserId()).orElseThrow();
+        index.completed(completed);
+        return completed;
+    }
+
+    /**
+     * Reads the rides at the start of the scan, then runs {@code duringScan} before returning
+     * them, so those transitions land after the scan read the rides. {@code beforeScan} runs
+     * before the read.
+     */
+    private static final class PausingRideRepository extends InMemoryRideRepository {
+
+        private Runnable beforeScan = () -> { };
+        private Runnable duringScan = () -> { };
+
+        @Override
+        public Stream<Ride> streamSummaryFields(String fromId, String toId) {
+            beforeScan.run();
+            List<Ride> read = super.streamSummaryFields(fromId, toId).toList();
+            duringScan.run();
+            return read.stream();
+        }
+    }
+}